@@ -0,0 +1,116 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.service.IdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the benchmark database with students, courses and enrollments.
+ * Runs before ApplicationReadyEvent, so the in-memory indexes are built
+ * from the seeded data like on a normal startup.
+ */
+public class BenchmarkDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkDataSeeder.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Course kept free of seeded enrollments for the enroll/unenroll benchmarks
+     */
+    static final String OPEN_COURSE_NAME = "Benchmark open course";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IdAllocator idAllocator;
+    private final int students;
+    private final int courses;
+    private final int coursesPerStudent;
+
+    private long[] studentIds;
+    private long[] courseIds;
+    private long openCourseId;
+
+    public BenchmarkDataSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               IdAllocator idAllocator,
+                               @Value("${benchmark.students}") int students,
+                               @Value("${benchmark.courses}") int courses,
+                               @Value("${benchmark.courses-per-student}") int coursesPerStudent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idAllocator = idAllocator;
+        this.students = students;
+        this.courses = courses;
+        this.coursesPerStudent = Math.min(coursesPerStudent, courses);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> seed());
+        log.info("Seeded {} students, {} courses and {} enrollments in {} ms", studentIds.length, courseIds.length,
+                (long) studentIds.length * coursesPerStudent, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        long nextCourseId = idAllocator.reserve("courses", courses + 1);
+        for (int i = 1; i <= courses; i++) {
+            rows.add(new Object[] {nextCourseId++, "Course " + i, "Seeded course number " + i});
+        }
+        rows.add(new Object[] {nextCourseId, OPEN_COURSE_NAME, "Left without seeded enrollments"});
+        insert("INSERT INTO courses (id, name, description) VALUES (?, ?, ?)", rows);
+
+        rows.clear();
+        long nextStudentId = idAllocator.reserve("students", Math.max(1, students));
+        for (int i = 1; i <= students; i++) {
+            rows.add(new Object[] {nextStudentId++, "Student " + i, "student" + i + "@benchmark.test"});
+        }
+        insert("INSERT INTO students (id, name, email) VALUES (?, ?, ?)", rows);
+
+        studentIds = ids("SELECT id FROM students ORDER BY id");
+        courseIds = ids("SELECT id FROM courses WHERE name <> '" + OPEN_COURSE_NAME + "' ORDER BY id");
+        openCourseId = jdbcTemplate.queryForObject("SELECT id FROM courses WHERE name = ?", Long.class,
+                OPEN_COURSE_NAME);
+
+        // Fixed seed so every run benchmarks the same enrollment graph
+        Random random = new Random(42);
+        rows.clear();
+        for (long studentId : studentIds) {
+            int first = random.nextInt(courseIds.length);
+            for (int i = 0; i < coursesPerStudent; i++) {
+                rows.add(new Object[] {studentId, courseIds[(first + i) % courseIds.length]});
+            }
+        }
+        insert("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)", rows);
+        jdbcTemplate.update("UPDATE courses c SET enrolled_count = " +
+                "(SELECT COUNT(*) FROM student_courses sc WHERE sc.course_id = c.id)");
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private long[] ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    long[] getStudentIds() {
+        return studentIds;
+    }
+
+    long getOpenCourseId() {
+        return openCourseId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.service.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CourseService lookups behind the enrollment page
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+
+        CourseService courseService;
+        int pageSize;
+
+        @Setup(Level.Trial)
+        public void lookup(SeededApplication application) {
+            courseService = application.getBean(CourseService.class);
+            pageSize = application.getBean(PaginationProperties.class).getRosterSize();
+        }
+    }
+
+    @Benchmark
+    public KeysetPage<Course> getCoursePageByStudent(Services services, SeededApplication application) {
+        return services.courseService.getCoursePageByStudent(application.randomStudentId(), null,
+                services.pageSize);
+    }
+
+    @Benchmark
+    public KeysetPage<Course> getCoursePageNotEnrolledByStudent(Services services, SeededApplication application) {
+        return services.courseService.getCoursePageNotEnrolledByStudent(application.randomStudentId(), null,
+                services.pageSize);
+    }
+}
@@ -0,0 +1,63 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.controller.EnrollmentController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The enrollment flow as EnrollmentController runs it, minus HTTP and view rendering
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Controllers {
+
+        EnrollmentController enrollmentController;
+
+        @Setup(Level.Trial)
+        public void lookup(SeededApplication application) {
+            enrollmentController = application.getBean(EnrollmentController.class);
+        }
+    }
+
+    @Benchmark
+    public String viewStudentEnrollments(Controllers controllers, SeededApplication application) {
+        return controllers.enrollmentController.viewStudentEnrollments(application.randomStudentId(),
+                new ServletWebRequest(new MockHttpServletRequest()), new ExtendedModelMap());
+    }
+
+    /**
+     * Enroll a random student in the open course and unenroll them again,
+     * leaving the dataset as it was
+     */
+    @Benchmark
+    public void enrollThenUnenroll(Controllers controllers, SeededApplication application, Blackhole blackhole) {
+        long studentId = application.randomStudentId();
+        long courseId = application.openCourseId();
+        blackhole.consume(controllers.enrollmentController.enrollStudentInCourse(studentId, courseId,
+                new RedirectAttributesModelMap()));
+        blackhole.consume(controllers.enrollmentController.unenrollStudentFromCourse(studentId, courseId,
+                new RedirectAttributesModelMap()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.StudentCourseManagementApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application without its web server, booted once per trial against
+ * a private in-memory H2 database seeded by {@link BenchmarkDataSeeder}.
+ * Dataset size is set with {@code -p students=... -p courses=... -p coursesPerStudent=...}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param("10000")
+    public int students;
+
+    @Param("200")
+    public int courses;
+
+    @Param("5")
+    public int coursesPerStudent;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataSeeder seeder;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Passed as arguments so they override application.properties
+        context = new SpringApplicationBuilder(StudentCourseManagementApplication.class, BenchmarkDataSeeder.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.studentmanagement=WARN",
+                        "--logging.level.com.studentmanagement.benchmark=INFO",
+                        "--benchmark.students=" + students,
+                        "--benchmark.courses=" + courses,
+                        "--benchmark.courses-per-student=" + coursesPerStudent);
+        seeder = context.getBean(BenchmarkDataSeeder.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomStudentId() {
+        long[] ids = seeder.getStudentIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    /**
+     * A course no seeded student is enrolled in
+     */
+    public long openCourseId() {
+        return seeder.getOpenCourseId();
+    }
+}
@@ -0,0 +1,52 @@
+package com.studentmanagement.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * Delays every statement prepared by {@code benchmark.db-latency-millis}, standing
+ * in for the network round trip to a database server. The delay is spent while
+ * the connection is held, as a real round trip would be.
+ */
+public class SimulatedDatabaseLatency implements BeanPostProcessor {
+
+    private final long latencyMillis;
+
+    public SimulatedDatabaseLatency(Environment environment) {
+        this.latencyMillis = environment.getProperty("benchmark.db-latency-millis", Long.class, 0L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (latencyMillis > 0 && bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, true);
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, boolean dataSource) {
+        Class<?>[] interfaces = target instanceof AutoCloseable
+                ? new Class<?>[] {type, AutoCloseable.class}
+                : new Class<?>[] {type};
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), interfaces, (proxy, method, args) -> {
+            if (!dataSource && (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))) {
+                Thread.sleep(latencyMillis);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return dataSource && result instanceof Connection connection
+                    ? proxy(Connection.class, connection, false)
+                    : result;
+        });
+    }
+}
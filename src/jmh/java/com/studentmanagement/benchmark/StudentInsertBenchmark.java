@@ -0,0 +1,106 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.StudentCourseManagementApplication;
+import com.studentmanagement.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert a batch of new students through JPA, one transaction per
+ * {@code transactionSize} rows, as a bulk or high-rate creation path would.
+ * Compares ID allocation sizes with {@code -p allocationSize=1,50,1000}; with
+ * {@code -p dbLatencyMillis=...} every statement also pays a network round trip.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentInsertBenchmark {
+
+    @Param("100000")
+    public int rows;
+
+    @Param("1000")
+    public int transactionSize;
+
+    @Param("50")
+    public int allocationSize;
+
+    @Param("0")
+    public long dbLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private long created;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(StudentCourseManagementApplication.class, SimulatedDatabaseLatency.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=jdbc:h2:mem:inserts;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.studentmanagement=WARN",
+                        "--app.id-generation.allocation-size=" + allocationSize,
+                        "--benchmark.db-latency-millis=" + dbLatencyMillis);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Start every iteration from an empty table
+     */
+    @Setup(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM students");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public long insertStudents() {
+        for (int from = 0; from < rows; from += transactionSize) {
+            int count = Math.min(transactionSize, rows - from);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < count; i++) {
+                    long n = ++created;
+                    entityManager.persist(new Student("Inserted " + n, "inserted" + n + "@benchmark.test"));
+                }
+            });
+        }
+        return created;
+    }
+}
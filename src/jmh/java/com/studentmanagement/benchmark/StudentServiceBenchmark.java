@@ -0,0 +1,62 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StudentService reads and writes against the seeded dataset
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+
+        StudentService studentService;
+        final AtomicLong createdStudents = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void lookup(SeededApplication application) {
+            studentService = application.getBean(StudentService.class);
+        }
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents(Services services) {
+        return services.studentService.getAllStudents();
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentById(Services services, SeededApplication application) {
+        return services.studentService.getStudentById(application.randomStudentId());
+    }
+
+    /**
+     * Every invocation inserts a new student, so the table grows over the run
+     */
+    @Benchmark
+    public Student createStudent(Services services) {
+        long n = services.createdStudents.incrementAndGet();
+        return services.studentService.createStudent(new Student("Created " + n, "created" + n + "@benchmark.test"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.StudentCourseManagementApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of the running server in platform-thread
+ * and virtual-thread mode, with more concurrent clients than Tomcat has
+ * platform threads (200). Every statement gets a simulated database round trip,
+ * so requests spend their time parked on JDBC as they do against MySQL.
+ *
+ * The connection pool defaults to more connections than there are clients so
+ * that only the threading model differs; with a smaller pool both modes are
+ * bound by the pool instead. Try {@code -p poolSize=50} or {@code -t 1000}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"platform", "virtual"})
+        public String threads;
+
+        @Param("10")
+        public int dbLatencyMillis;
+
+        @Param("500")
+        public int poolSize;
+
+        @Param("10000")
+        public int students;
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private String baseUrl;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(StudentCourseManagementApplication.class,
+                    BenchmarkDataSeeder.class, SimulatedDatabaseLatency.class)
+                    .bannerMode(Banner.Mode.OFF)
+                    .run("--server.port=0",
+                            "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                            "--spring.datasource.url=jdbc:h2:mem:threadmode;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                            "--spring.jpa.show-sql=false",
+                            "--spring.thymeleaf.cache=true",
+                            "--logging.level.root=WARN",
+                            "--logging.level.org.hibernate.SQL=WARN",
+                            "--logging.level.com.studentmanagement=WARN",
+                            "--app.monitoring.query-budget-mode=off",
+                            "--benchmark.db-latency-millis=" + dbLatencyMillis,
+                            "--benchmark.students=" + students,
+                            "--benchmark.courses=100",
+                            "--benchmark.courses-per-student=3");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    /**
+     * One page of the student list: a single uncached keyset query plus rendering
+     */
+    @Benchmark
+    public int studentPage(Server server) throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(server.students);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + "/students?size=5&after=" + after))
+                .build();
+        int status = server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("GET /students returned " + status);
+        }
+        return status;
+    }
+}
@@ -2,7 +2,9 @@ package com.studentmanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Student Course Management System
@@ -11,7 +13,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * @version 1.0.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableJpaAuditing
+@EnableScheduling
 public class StudentCourseManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,64 @@
+package com.studentmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.OptionalLong;
+
+/**
+ * Cache setup shared by Hibernate's second-level cache and Spring's cache abstraction.
+ * Both use one bounded, expiring Caffeine JCache manager, so every region shows up
+ * in the cache metrics with hit, miss and eviction counts.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STUDENT_ENROLLMENTS = "studentEnrollments";
+    public static final String COURSE_IDS = "courseIds";
+
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jcacheManager(CachingProperties properties) {
+        javax.cache.CacheManager cacheManager = javax.cache.Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(properties.getManagerName()), getClass().getClassLoader());
+        createCache(cacheManager, Course.class.getName(), properties.getEntities());
+        createCache(cacheManager, Student.class.getName(), properties.getEntities());
+        createCache(cacheManager, STUDENT_ENROLLMENTS, properties.getEnrollments());
+        createCache(cacheManager, COURSE_IDS, properties.getCourseIds());
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheManager cacheManager(javax.cache.CacheManager jcacheManager) {
+        return new JCacheCacheManager(jcacheManager);
+    }
+
+    /**
+     * Hand the same cache manager to Hibernate for its entity regions
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(javax.cache.CacheManager jcacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+    }
+
+    private static void createCache(javax.cache.CacheManager cacheManager, String name, CachingProperties.Spec spec) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(spec.getMaxSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(spec.getTtl().toNanos()));
+        // Values are immutable cache entries or read-only ID sets, so skip the defensive copy
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,96 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size and expiry settings for the entity and enrollment caches
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CachingProperties {
+
+    /**
+     * Name of the JCache manager, which is shared by everything in the JVM asking for the same name
+     */
+    private String managerName = "student-management";
+
+    /**
+     * Second-level cache regions of the Course and Student entities
+     */
+    private Spec entities = new Spec(10_000, Duration.ofMinutes(30));
+
+    /**
+     * Per-student enrolled course ID sets
+     */
+    private Spec enrollments = new Spec(10_000, Duration.ofMinutes(10));
+
+    /**
+     * The list of all course IDs
+     */
+    private Spec courseIds = new Spec(1, Duration.ofMinutes(10));
+
+    public String getManagerName() {
+        return managerName;
+    }
+
+    public void setManagerName(String managerName) {
+        this.managerName = managerName;
+    }
+
+    public Spec getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Spec entities) {
+        this.entities = entities;
+    }
+
+    public Spec getEnrollments() {
+        return enrollments;
+    }
+
+    public void setEnrollments(Spec enrollments) {
+        this.enrollments = enrollments;
+    }
+
+    public Spec getCourseIds() {
+        return courseIds;
+    }
+
+    public void setCourseIds(Spec courseIds) {
+        this.courseIds = courseIds;
+    }
+
+    /**
+     * Bound and time-to-live of one cache
+     */
+    public static class Spec {
+
+        private long maxSize;
+        private Duration ttl;
+
+        public Spec() {}
+
+        public Spec(long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Buffering and limits of the server-sent change feed
+ */
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * Most recent changes kept for clients resuming from a sequence number
+     */
+    private int bufferSize = 16384;
+
+    /**
+     * Changes queued for one client before it is considered too slow and disconnected
+     */
+    private int subscriberQueueSize = 1024;
+
+    private int maxSubscribers = 1000;
+
+    /**
+     * Idle time after which a comment is sent to keep the connection open
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * How long one connection lasts before the client has to reconnect
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getSubscriberQueueSize() {
+        return subscriberQueueSize;
+    }
+
+    public void setSubscriberQueueSize(int subscriberQueueSize) {
+        this.subscriberQueueSize = subscriberQueueSize;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,49 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the Bloom filter over student emails
+ */
+@ConfigurationProperties(prefix = "app.email-filter")
+public class EmailFilterProperties {
+
+    /**
+     * Number of emails the filter is sized for; it is rebuilt larger once exceeded
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Target false-positive probability at the expected number of emails
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Share of stale entries (deleted or changed emails) that triggers a rebuild
+     */
+    private double maxStaleRatio = 0.1;
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public double getMaxStaleRatio() {
+        return maxStaleRatio;
+    }
+
+    public void setMaxStaleRatio(double maxStaleRatio) {
+        this.maxStaleRatio = maxStaleRatio;
+    }
+}
@@ -0,0 +1,73 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Write-behind mode for single enrollments: changes are acknowledged once journaled and applied in batches
+ */
+@ConfigurationProperties(prefix = "app.enrollment-journal")
+public class EnrollmentJournalProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the two journal files, which take turns being written
+     */
+    private Path directory = Path.of("journal");
+
+    /**
+     * Size of each journal file; changes are refused once pending ones no longer fit
+     */
+    private DataSize size = DataSize.ofMegabytes(8);
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Most pending changes applied in one transaction
+     */
+    private int maxBatch = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getSize() {
+        return size;
+    }
+
+    public void setSize(DataSize size) {
+        this.size = size;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+}
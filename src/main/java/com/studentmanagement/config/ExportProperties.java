@@ -0,0 +1,20 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the streaming export
+ */
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    private int clearInterval = 1000;
+
+    public int getClearInterval() {
+        return clearInterval;
+    }
+
+    public void setClearInterval(int clearInterval) {
+        this.clearInterval = clearInterval;
+    }
+}
@@ -0,0 +1,24 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bound of the rendered HTML fragment cache
+ */
+@ConfigurationProperties(prefix = "app.fragment-cache")
+public class FragmentCacheProperties {
+
+    /**
+     * Approximate memory taken by cached fragments before the least valuable ones are evicted
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,19 @@
+package com.studentmanagement.config;
+
+import com.studentmanagement.entity.PooledIdGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Passes the ID allocation size on to Hibernate, where PooledIdGenerator reads it
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(IdGenerationProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(PooledIdGenerator.ALLOCATION_SIZE_SETTING,
+                Integer.toString(properties.getAllocationSize()));
+    }
+}
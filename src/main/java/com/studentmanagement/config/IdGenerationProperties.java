@@ -0,0 +1,23 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Block size of the pooled ID generator used by students and courses
+ */
+@ConfigurationProperties(prefix = "app.id-generation")
+public class IdGenerationProperties {
+
+    /**
+     * IDs reserved per round trip to the generator table; IDs left unused at shutdown become gaps
+     */
+    private int allocationSize = 50;
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    public void setAllocationSize(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+}
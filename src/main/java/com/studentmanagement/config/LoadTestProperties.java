@@ -0,0 +1,101 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Size and shape of the synthetic dataset generated under the loadtest profile
+ */
+@ConfigurationProperties(prefix = "app.loadtest")
+public class LoadTestProperties {
+
+    private int students = 1_000_000;
+
+    private int courses = 10_000;
+
+    /**
+     * Average number of courses per student; actual counts are spread evenly from 0 to twice this
+     */
+    private int enrollmentsPerStudent = 5;
+
+    /**
+     * Zipf exponent of course popularity; 0 is uniform, higher values pile students into fewer courses
+     */
+    private double skew = 1.0;
+
+    private long seed = 42;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int batchSize = 1000;
+
+    /**
+     * H2 script the generated data is written to and restored from on later startups, or null to always generate
+     */
+    private Path snapshot;
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+
+    public void setCourses(int courses) {
+        this.courses = courses;
+    }
+
+    public int getEnrollmentsPerStudent() {
+        return enrollmentsPerStudent;
+    }
+
+    public void setEnrollmentsPerStudent(int enrollmentsPerStudent) {
+        this.enrollmentsPerStudent = enrollmentsPerStudent;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Path getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Path snapshot) {
+        this.snapshot = snapshot;
+    }
+}
@@ -0,0 +1,57 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for request monitoring
+ */
+@ConfigurationProperties(prefix = "app.monitoring")
+public class MonitoringProperties {
+
+    /**
+     * Requests taking at least this long are logged with their SQL statement count
+     */
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+
+    /**
+     * What happens when a request goes over its SQL statement budget
+     */
+    private QueryBudgetMode queryBudgetMode = QueryBudgetMode.WARN;
+
+    /**
+     * Budgets keyed by method and URI pattern, e.g. {@code [GET /courses/{id}]}, overriding the annotations
+     */
+    private Map<String, Integer> queryBudgets = new HashMap<>();
+
+    public Duration getSlowRequestThreshold() {
+        return slowRequestThreshold;
+    }
+
+    public void setSlowRequestThreshold(Duration slowRequestThreshold) {
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    public QueryBudgetMode getQueryBudgetMode() {
+        return queryBudgetMode;
+    }
+
+    public void setQueryBudgetMode(QueryBudgetMode queryBudgetMode) {
+        this.queryBudgetMode = queryBudgetMode;
+    }
+
+    public Map<String, Integer> getQueryBudgets() {
+        return queryBudgets;
+    }
+
+    public void setQueryBudgets(Map<String, Integer> queryBudgets) {
+        this.queryBudgets = queryBudgets;
+    }
+
+    public enum QueryBudgetMode {
+        OFF, WARN, FAIL
+    }
+}
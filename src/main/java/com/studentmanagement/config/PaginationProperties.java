@@ -0,0 +1,82 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Page size settings for the keyset-paginated list pages
+ */
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    private static final int[] STANDARD_SIZES = {10, 20, 50, 100};
+
+    private int defaultSize = 20;
+
+    private int maxSize = 100;
+
+    /**
+     * Rows per page of the rosters and course lists loaded incrementally on the course and enrollment pages
+     */
+    private int rosterSize = 50;
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getRosterSize() {
+        return rosterSize;
+    }
+
+    public void setRosterSize(int rosterSize) {
+        this.rosterSize = rosterSize;
+    }
+
+    /**
+     * Resolve a requested page size, falling back to the default and capping at the maximum
+     */
+    public int resolveSize(Integer requested) {
+        return resolve(requested, defaultSize);
+    }
+
+    /**
+     * Resolve a requested roster page size, falling back to the roster size and capping at the maximum
+     */
+    public int resolveRosterSize(Integer requested) {
+        return resolve(requested, rosterSize);
+    }
+
+    /**
+     * The choices offered by the page size selector: the standard sizes up to the maximum,
+     * plus the configured default and the size in use, so the current one is always listed
+     */
+    public List<Integer> sizeOptions(int selected) {
+        TreeSet<Integer> options = new TreeSet<>();
+        IntStream.of(STANDARD_SIZES).filter(option -> option <= maxSize).forEach(options::add);
+        options.add(Math.min(defaultSize, maxSize));
+        options.add(selected);
+        return List.copyOf(options);
+    }
+
+    private int resolve(Integer requested, int fallback) {
+        if (requested == null || requested < 1) {
+            return Math.min(fallback, maxSize);
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -0,0 +1,42 @@
+package com.studentmanagement.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Keeps replica data out of anything that outlives the read, such as caches and
+ * the validators of a page. A replica may still be missing a write whose cache
+ * eviction has already run, and anything filled from it would hold the old data
+ * until it expires. Without replica routing every read comes from the primary.
+ */
+public final class ReplicaReads {
+
+    static final String PRIMARY_FOR_REQUEST = ReplicaReads.class.getName() + ".PRIMARY_FOR_REQUEST";
+
+    /**
+     * Bound to a transaction whose connection came from a replica
+     */
+    static final Object REPLICA_TRANSACTION = new Object();
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Send the rest of the current request's reads to the primary. Connections are
+     * picked per transaction, so this must come before the transactions it is meant for.
+     */
+    public static void usePrimaryForRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_FOR_REQUEST, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Whether the current transaction reads from a replica, so its results must not be cached
+     */
+    public static boolean inCurrentTransaction() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_TRANSACTION);
+    }
+}
@@ -0,0 +1,100 @@
+package com.studentmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single connection pool with a primary pool and one pool per
+ * replica when {@code app.datasource.routing.enabled} is set. Every pool
+ * takes its settings from {@code spring.datasource.hikari}; replicas only
+ * override the connection details.
+ *
+ * Each transaction gets its own connection, so routing decides per transaction.
+ * The pools are not beans of their own, so only the routed DataSource is
+ * seen by JPA, JdbcTemplate and the SQL statement counter.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements DisposableBean {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties properties,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(dataSourceProperties, environment, meterRegistry, "primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = pool(dataSourceProperties, environment, meterRegistry,
+                    "replica-" + (replicas.size() + 1));
+            pool.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                pool.setUsername(replica.getUsername());
+            }
+            if (replica.getPassword() != null) {
+                pool.setPassword(replica.getPassword());
+            }
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, properties, meterRegistry);
+        routingDataSource.checkReplicas();
+        // Defer choosing a pool until the first statement, when the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Hibernate holds a connection for the whole session by default, which with the
+     * session open for the entire request would pin every later transaction to the
+     * pool picked by the first. Release it after each transaction instead.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Scheduled(initialDelayString = "${app.datasource.routing.lag-check-interval:PT1S}",
+               fixedDelayString = "${app.datasource.routing.lag-check-interval:PT1S}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, Environment environment,
+                                         MeterRegistry meterRegistry, String name) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,326 @@
+package com.studentmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.Closeable;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything
+ * else to the primary. Needs to sit behind a LazyConnectionDataSourceProxy,
+ * since the read-only flag is only set once the transaction has begun.
+ *
+ * Replica lag is measured by writing a heartbeat row on the primary and
+ * reading it back from each replica; replicas further behind than
+ * {@code max-lag}, or unreachable, get no reads until they catch up. After a
+ * transaction commits a write, the rest of the request reads from the primary,
+ * and so do the client's requests for {@code sticky-after-write}, so users see
+ * their own changes. Those later requests are recognised by a short-lived
+ * cookie rather than the HTTP session, which API clients do not have and
+ * should not be given.
+ *
+ * Whatever is cached must come from the primary, or a lagging replica could
+ * put back data whose eviction already ran. Requests that fill caches ask for
+ * the primary through {@link ReplicaReads}, and transactions on a replica only
+ * read from the second-level cache, never add to it.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String PRIMARY_UNTIL = ReplicaRoutingDataSource.class.getName() + ".PRIMARY_UNTIL";
+    private static final String PRIMARY_UNTIL_COOKIE = "PRIMARY_UNTIL";
+
+    private static final String CREATE_HEARTBEAT =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat TIMESTAMP NOT NULL)";
+    private static final String UPDATE_HEARTBEAT = "UPDATE replica_heartbeat SET beat = ? WHERE id = 1";
+    private static final String INSERT_HEARTBEAT = "INSERT INTO replica_heartbeat (id, beat) VALUES (1, ?)";
+    private static final String READ_HEARTBEAT = "SELECT beat FROM replica_heartbeat WHERE id = 1";
+
+    private final HikariDataSource primary;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<Replica> replicas;
+    private final ReplicaRoutingProperties properties;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                             ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.properties = properties;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name(), replica.pool));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.primaryConnections = connections(meterRegistry, "primary");
+        this.replicaConnections = connections(meterRegistry, "replica");
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, Replica::lagSeconds)
+                    .description("How far a replica is behind the primary, NaN when it cannot be reached")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        stickToPrimary();
+                    }
+                });
+            }
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        Replica replica = stuckToPrimary() ? null : chooseReplica();
+        if (replica == null) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        markReplicaTransaction();
+        return replica.name();
+    }
+
+    /**
+     * Write the primary's heartbeat and measure how far behind each replica is
+     */
+    void checkReplicas() {
+        Instant now = Instant.now();
+        try {
+            writeHeartbeat(now);
+        } catch (DataAccessException e) {
+            // The table may have been dropped along with the schema; recreate it once
+            try {
+                primaryJdbcTemplate.execute(CREATE_HEARTBEAT);
+                writeHeartbeat(now);
+            } catch (DataAccessException retryFailure) {
+                log.warn("Could not write the replica heartbeat on the primary: {}", retryFailure.getMessage());
+                return;
+            }
+        }
+        for (Replica replica : replicas) {
+            Duration lag;
+            try {
+                Timestamp beat = replica.jdbcTemplate.queryForObject(READ_HEARTBEAT, Timestamp.class);
+                lag = beat == null ? null : Duration.between(beat.toInstant(), now);
+                lag = lag == null || lag.isNegative() ? Duration.ZERO : lag;
+            } catch (DataAccessException e) {
+                lag = null;
+            }
+            replica.updateLag(lag);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private void writeHeartbeat(Instant now) {
+        Timestamp beat = Timestamp.from(now);
+        if (primaryJdbcTemplate.update(UPDATE_HEARTBEAT, beat) == 0) {
+            primaryJdbcTemplate.update(INSERT_HEARTBEAT, beat);
+        }
+    }
+
+    private Replica chooseReplica() {
+        List<Replica> available = replicas.stream().filter(Replica::isAvailable).toList();
+        if (available.isEmpty()) {
+            return null;
+        }
+        if (properties.getLoadBalancing() == ReplicaRoutingProperties.LoadBalancing.LEAST_LOADED) {
+            return available.stream().min(Comparator.comparingInt(Replica::activeConnections)).orElseThrow();
+        }
+        return available.get(Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+    }
+
+    private boolean stuckToPrimary() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        if (attributes.getAttribute(ReplicaReads.PRIMARY_FOR_REQUEST, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (attributes.getAttribute(PRIMARY_UNTIL, RequestAttributes.SCOPE_REQUEST) instanceof Long until) {
+            return until > now;
+        }
+        Cookie[] cookies = attributes.getRequest().getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookie.getName().equals(PRIMARY_UNTIL_COOKIE)) {
+                try {
+                    // A value further ahead than any write could have set is ignored
+                    long until = Long.parseLong(cookie.getValue());
+                    return until > now && until <= now + properties.getStickyAfterWrite().toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Send the rest of the current request, and the client's requests for a while, to the primary.
+     * Work outside a request, such as scheduled jobs, has no user to keep consistent.
+     */
+    private void stickToPrimary() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        Duration sticky = properties.getStickyAfterWrite();
+        long until = System.currentTimeMillis() + sticky.toMillis();
+        attributes.setAttribute(PRIMARY_UNTIL, until, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        String contextPath = attributes.getRequest().getContextPath();
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(PRIMARY_UNTIL_COOKIE, Long.toString(until))
+                .path(contextPath.isEmpty() ? "/" : contextPath)
+                .maxAge(sticky.plusSeconds(1))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString());
+    }
+
+    /**
+     * Tell cache fillers the transaction reads from a replica, and keep the entities it
+     * loads out of the second-level cache until it ends
+     */
+    private static void markReplicaTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(ReplicaReads.REPLICA_TRANSACTION)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(ReplicaReads.REPLICA_TRANSACTION, Boolean.TRUE);
+        Session session = currentSession();
+        CacheMode cacheMode = session != null ? session.getCacheMode() : null;
+        if (session != null) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaReads.REPLICA_TRANSACTION);
+                // With the session open for the whole request, later transactions may be on the primary
+                if (session != null && session.isOpen()) {
+                    session.setCacheMode(cacheMode);
+                }
+            }
+        });
+    }
+
+    private static Session currentSession() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                return holder.getEntityManager().unwrap(Session.class);
+            }
+        }
+        return null;
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out by the routing data source")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A replica pool and its last measured lag
+     */
+    private final class Replica {
+
+        private final HikariDataSource pool;
+        private final JdbcTemplate jdbcTemplate;
+
+        /**
+         * Null while unreachable or not yet measured
+         */
+        private volatile Duration lag;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.jdbcTemplate = new JdbcTemplate(pool);
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+
+        private boolean isAvailable() {
+            Duration current = lag;
+            return current != null && current.compareTo(properties.getMaxLag()) <= 0;
+        }
+
+        private void updateLag(Duration lag) {
+            boolean wasAvailable = isAvailable();
+            this.lag = lag;
+            if (wasAvailable && !isAvailable()) {
+                log.warn("Replica {} is {}; reading from {} until it catches up", name(),
+                        lag == null ? "unreachable" : lag.toMillis() + " ms behind",
+                        replicas.size() > 1 ? "the other replicas" : "the primary");
+            } else if (!wasAvailable && isAvailable()) {
+                log.info("Replica {} is {} ms behind the primary and takes reads", name(), lag.toMillis());
+            }
+        }
+
+        private double lagSeconds() {
+            Duration current = lag;
+            return current == null ? Double.NaN : current.toNanos() / 1e9;
+        }
+
+        private int activeConnections() {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            return mxBean == null ? 0 : mxBean.getActiveConnections();
+        }
+    }
+}
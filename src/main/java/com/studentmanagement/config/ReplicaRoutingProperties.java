@@ -0,0 +1,131 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routing of read-only transactions to replica databases
+ */
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN;
+
+    /**
+     * Replicas further behind the primary than this are skipped until they catch up
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the primary's heartbeat is written and each replica's lag is measured
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a client's reads keep going to the primary after it committed a write
+     */
+    private Duration stickyAfterWrite = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing;
+    }
+
+    public void setLoadBalancing(LoadBalancing loadBalancing) {
+        this.loadBalancing = loadBalancing;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public Duration getStickyAfterWrite() {
+        return stickyAfterWrite;
+    }
+
+    public void setStickyAfterWrite(Duration stickyAfterWrite) {
+        this.stickyAfterWrite = stickyAfterWrite;
+    }
+
+    public enum LoadBalancing {
+        ROUND_ROBIN,
+        /** Fewest connections in use */
+        LEAST_LOADED
+    }
+
+    /**
+     * Connection settings of one replica; the pool is otherwise configured like the primary's
+     */
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to the primary's
+         */
+        private String username;
+
+        /**
+         * Defaults to the primary's
+         */
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-memory dashboard statistics
+ */
+@ConfigurationProperties(prefix = "app.statistics")
+public class StatisticsProperties {
+
+    private int popularCourses = 5;
+
+    public int getPopularCourses() {
+        return popularCourses;
+    }
+
+    public void setPopularCourses(int popularCourses) {
+        this.popularCourses = popularCourses;
+    }
+}
@@ -0,0 +1,47 @@
+package com.studentmanagement.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.studentmanagement.dto.ResourceFields;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared handling of the {@code fields} and {@code embed} parameters of the JSON API
+ */
+final class ApiResponses {
+
+    static final String EMBED_ENROLLMENTS = "enrollments";
+
+    private ApiResponses() {
+    }
+
+    /**
+     * Whether {@code embed=enrollments} was asked for; anything else is rejected
+     */
+    static boolean embedsEnrollments(String embed) {
+        if (embed == null || embed.isBlank()) {
+            return false;
+        }
+        if (!EMBED_ENROLLMENTS.equals(embed.trim())) {
+            throw new IllegalArgumentException("Unknown embed '" + embed + "', expected '" + EMBED_ENROLLMENTS + "'");
+        }
+        return true;
+    }
+
+    /**
+     * Wrap a response body so resources only serialise the selected fields, plus enrollments when embedded
+     */
+    static MappingJacksonValue select(Object body, ResourceFields fields, boolean withEnrollments) {
+        Set<String> properties = fields.toPropertySet(withEnrollments ? List.of(EMBED_ENROLLMENTS) : List.of());
+        SimpleBeanPropertyFilter filter = properties == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(properties);
+
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(ResourceFields.FILTER, filter));
+        return value;
+    }
+}
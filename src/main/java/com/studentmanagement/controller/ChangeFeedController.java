@@ -0,0 +1,49 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ChangeFeed;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller for the server-sent change feed, so clients can follow changes instead of polling pages
+ */
+@Controller
+@RequestMapping("/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Stream changes, optionally only those touching the given courses or students.
+     * Reconnecting clients resume after {@code Last-Event-ID}, or {@code since} when the header is absent.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(0)
+    public SseEmitter subscribe(@RequestParam(name = "courseId", defaultValue = "") Set<Long> courseIds,
+                                @RequestParam(name = "studentId", defaultValue = "") Set<Long> studentIds,
+                                @RequestParam(required = false) Long since,
+                                @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(courseIds, studentIds, lastEventId != null ? lastEventId : since);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyClients(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.service.ChangeTracker;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conditional GET handling for the HTML pages
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Set ETag and Last-Modified from the page revision and check them against
+     * If-None-Match / If-Modified-Since. When this returns true the response is
+     * already a 304 and the handler should return {@code null} without rendering.
+     *
+     * Pages carrying a flash message are always rendered, since the message is
+     * not part of the revision.
+     */
+    static boolean notModified(WebRequest request, Optional<ChangeTracker.Revision> revision) {
+        if (revision.isEmpty() || !(request instanceof ServletWebRequest servletRequest)) {
+            return false;
+        }
+        HttpServletResponse response = servletRequest.getResponse();
+        if (response != null) {
+            // Revalidate on every visit rather than trusting heuristic freshness
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(servletRequest.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            return false;
+        }
+        return request.checkNotModified(revision.get().etag(), revision.get().lastModified());
+    }
+}
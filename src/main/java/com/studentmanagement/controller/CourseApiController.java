@@ -0,0 +1,100 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.CourseResource;
+import com.studentmanagement.dto.ResourceFields;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ResourceQueryService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+
+/**
+ * Read-only JSON API for courses.
+ * Supports keyset paging, sparse fieldsets ({@code fields=name,studentCount}) and
+ * {@code embed=enrollments}.
+ */
+@Controller
+@RequestMapping("/api/v1/courses")
+public class CourseApiController {
+
+    private final ResourceQueryService resourceQueryService;
+    private final PaginationProperties paginationProperties;
+
+    public CourseApiController(ResourceQueryService resourceQueryService,
+                               PaginationProperties paginationProperties) {
+        this.resourceQueryService = resourceQueryService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * One keyset page of courses
+     */
+    @GetMapping
+    @QueryBudget(2)
+    public ResponseEntity<?> listCourses(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Long before,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(defaultValue = "asc") String direction,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String embed) {
+        try {
+            ResourceFields selected = ResourceFields.parse(fields, CourseResource.FIELDS);
+            boolean withEnrollments = ApiResponses.embedsEnrollments(embed);
+            Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+            return ResponseEntity.ok(ApiResponses.select(
+                    resourceQueryService.getCourses(after, before, paginationProperties.resolveSize(size),
+                            sortDirection, withEnrollments),
+                    selected, withEnrollments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * One course
+     */
+    @GetMapping("/{id}")
+    @QueryBudget(2)
+    public ResponseEntity<?> getCourse(@PathVariable Long id,
+                                       @RequestParam(required = false) String fields,
+                                       @RequestParam(required = false) String embed) {
+        ResourceFields selected;
+        boolean withEnrollments;
+        try {
+            selected = ResourceFields.parse(fields, CourseResource.FIELDS);
+            withEnrollments = ApiResponses.embedsEnrollments(embed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponses.select(
+                    resourceQueryService.getCourse(id, withEnrollments), selected, withEnrollments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * One keyset page of a course's enrollments, ordered by student ID
+     */
+    @GetMapping("/{id}/enrollments")
+    @QueryBudget(2)
+    public ResponseEntity<?> getEnrollments(@PathVariable Long id,
+                                            @RequestParam(required = false) Long after,
+                                            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(resourceQueryService.getCourseEnrollments(
+                    id, after, paginationProperties.resolveSize(size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.studentmanagement.controller;
 
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.dto.SearchPage;
 import com.studentmanagement.entity.Course;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ChangeTracker;
 import com.studentmanagement.service.CourseService;
+import com.studentmanagement.service.EnrollmentService;
+import com.studentmanagement.service.FragmentCache.Fragment;
+import com.studentmanagement.service.FragmentCache;
+import com.studentmanagement.service.SearchService;
+import com.studentmanagement.service.StudentService;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Controller for Course operations
@@ -17,18 +31,57 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final SearchService searchService;
+    private final PaginationProperties paginationProperties;
+    private final ChangeTracker changeTracker;
+    private final StudentService studentService;
+    private final FragmentCache fragmentCache;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, EnrollmentService enrollmentService,
+                            SearchService searchService, PaginationProperties paginationProperties,
+                            ChangeTracker changeTracker, StudentService studentService,
+                            FragmentCache fragmentCache) {
         this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.searchService = searchService;
+        this.paginationProperties = paginationProperties;
+        this.changeTracker = changeTracker;
+        this.studentService = studentService;
+        this.fragmentCache = fragmentCache;
     }
 
     /**
-     * Display list of courses
+     * Display one keyset page of courses, or one page of ranked search results when {@code q} is given
      */
     @GetMapping
-    public String listCourses(Model model) {
-        List<Course> courses = courseService.getAllCourses();
-        model.addAttribute("courses", courses);
+    @QueryBudget(3)
+    public String listCourses(@RequestParam(required = false) String q,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Long before,
+                              @RequestParam(required = false) Integer size,
+                              @RequestParam(defaultValue = "asc") String direction,
+                              WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, Optional.of(changeTracker.courseList()))) {
+            return null;
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        int pageSize = paginationProperties.resolveSize(size);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("sizeOptions", paginationProperties.sizeOptions(pageSize));
+        model.addAttribute("direction", sortDirection.name().toLowerCase());
+
+        if (q != null && !q.isBlank()) {
+            SearchPage<CourseSummary> results = searchService.searchCourses(q, Math.max(page, 0), pageSize);
+            model.addAttribute("courses", results.getItems());
+            model.addAttribute("results", results);
+            return "courses/list";
+        }
+
+        KeysetPage<CourseSummary> keysetPage = courseService.getCoursePage(after, before, pageSize, sortDirection);
+        model.addAttribute("courses", keysetPage.getItems());
+        model.addAttribute("page", keysetPage);
         return "courses/list";
     }
 
@@ -36,18 +89,43 @@ public class CourseController {
      * Display course details
      */
     @GetMapping("/{id}")
-    public String viewCourse(@PathVariable Long id, Model model) {
+    @QueryBudget(5)
+    public String viewCourse(@PathVariable Long id, WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.course(id))) {
+            return null;
+        }
         Course course = courseService.getCourseById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
         
         model.addAttribute("course", course);
+        model.addAttribute("waitlistCount", enrollmentService.getWaitlistCount(id));
+        model.addAttribute("rosterHtml", fragmentCache.render(Fragment.COURSE_ROSTER, id, course.getVersion(),
+                () -> Map.of("courseId", id, "page", studentService.getStudentPageByCourse(id, null,
+                        paginationProperties.getRosterSize()))));
         return "courses/view";
     }
 
+    /**
+     * Next page of a course's roster, loaded by the course page's "Load more" button
+     */
+    @GetMapping("/{id}/roster")
+    @QueryBudget(3)
+    public String viewRosterPage(@PathVariable Long id, @RequestParam(required = false) Long after,
+                                 @RequestParam(required = false) Integer size, WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.course(id))) {
+            return null;
+        }
+        model.addAttribute("courseId", id);
+        model.addAttribute("page", studentService.getStudentPageByCourse(id, after,
+                paginationProperties.resolveRosterSize(size)));
+        return "courses/roster :: students";
+    }
+
     /**
      * Display form to create new course
      */
     @GetMapping("/new")
+    @QueryBudget(1)
     public String showCreateForm(Model model) {
         model.addAttribute("course", new Course());
         return "courses/form";
@@ -57,6 +135,7 @@ public class CourseController {
      * Display form to edit existing course
      */
     @GetMapping("/{id}/edit")
+    @QueryBudget(1)
     public String showEditForm(@PathVariable Long id, Model model) {
         Course course = courseService.getCourseById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
@@ -69,6 +148,7 @@ public class CourseController {
      * Create new course
      */
     @PostMapping
+    @QueryBudget(2)
     public String createCourse(@ModelAttribute Course course, RedirectAttributes redirectAttributes) {
         try {
             Course createdCourse = courseService.createCourse(course);
@@ -82,16 +162,23 @@ public class CourseController {
     }
 
     /**
-     * Update existing course
+     * Update existing course. The edit form posts the version it was rendered
+     * with, so the update is a single conditional UPDATE.
      */
     @PostMapping("/{id}")
-    public String updateCourse(@PathVariable Long id, @ModelAttribute Course course, 
+    @QueryBudget(8)
+    public String updateCourse(@PathVariable Long id, @ModelAttribute Course course,
+                              @RequestParam(required = false) Long version,
                               RedirectAttributes redirectAttributes) {
         try {
-            Course updatedCourse = courseService.updateCourse(id, course);
+            if (version != null) {
+                courseService.updateCourse(id, version, course);
+            } else {
+                courseService.updateCourse(id, course);
+            }
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Course updated successfully!");
-            return "redirect:/courses/" + updatedCourse.getId();
+            return "redirect:/courses/" + id;
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
             return "redirect:/courses/" + id + "/edit";
@@ -102,6 +189,7 @@ public class CourseController {
      * Delete course
      */
     @PostMapping("/{id}/delete")
+    @QueryBudget(4)
     public String deleteCourse(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
             courseService.deleteCourse(id);
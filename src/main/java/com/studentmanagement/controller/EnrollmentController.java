@@ -1,15 +1,25 @@
 package com.studentmanagement.controller;
 
-import com.studentmanagement.entity.Course;
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.EnrollmentOutcome;
 import com.studentmanagement.entity.Student;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ChangeTracker;
 import com.studentmanagement.service.CourseService;
+import com.studentmanagement.service.EnrollmentService;
+import com.studentmanagement.service.FragmentCache.Fragment;
+import com.studentmanagement.service.FragmentCache;
 import com.studentmanagement.service.StudentService;
+import com.studentmanagement.service.WriteBehindEnrollmentService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for Enrollment operations
@@ -20,47 +30,105 @@ public class EnrollmentController {
 
     private final StudentService studentService;
     private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final WriteBehindEnrollmentService writeBehindEnrollmentService;
+    private final ChangeTracker changeTracker;
+    private final FragmentCache fragmentCache;
+    private final PaginationProperties paginationProperties;
 
-    public EnrollmentController(StudentService studentService, CourseService courseService) {
+    public EnrollmentController(StudentService studentService, CourseService courseService,
+                                EnrollmentService enrollmentService,
+                                WriteBehindEnrollmentService writeBehindEnrollmentService,
+                                ChangeTracker changeTracker, FragmentCache fragmentCache,
+                                PaginationProperties paginationProperties) {
         this.studentService = studentService;
         this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.writeBehindEnrollmentService = writeBehindEnrollmentService;
+        this.changeTracker = changeTracker;
+        this.fragmentCache = fragmentCache;
+        this.paginationProperties = paginationProperties;
     }
 
     /**
      * Display student details with course enrollment options
      */
     @GetMapping("/student/{studentId}")
-    public String viewStudentEnrollments(@PathVariable Long studentId, Model model) {
+    @QueryBudget(6)
+    public String viewStudentEnrollments(@PathVariable Long studentId, WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.studentEnrollments(studentId))) {
+            return null;
+        }
         Student student = studentService.getStudentById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
         
-        List<Course> enrolledCourses = courseService.getCoursesByStudent(studentId);
-        List<Course> availableCourses = courseService.getCoursesNotEnrolledByStudent(studentId);
-        
         model.addAttribute("student", student);
-        model.addAttribute("enrolledCourses", enrolledCourses);
-        model.addAttribute("availableCourses", availableCourses);
+        int size = paginationProperties.getRosterSize();
+        model.addAttribute("enrolledCoursesHtml", fragmentCache.render(Fragment.ENROLLED_COURSES, studentId,
+                student.getVersion(),
+                () -> Map.of("studentId", studentId, "page", courseService.getCoursePageByStudent(studentId, null, size))));
+        model.addAttribute("availableCoursesHtml", fragmentCache.render(Fragment.AVAILABLE_COURSES, studentId,
+                student.getVersion(),
+                () -> Map.of("studentId", studentId, "page",
+                        courseService.getCoursePageNotEnrolledByStudent(studentId, null, size))));
         
         return "enrollments/student";
     }
 
+    /**
+     * Next page of a student's enrolled courses, loaded by the enrollment page's "Load more" button
+     */
+    @GetMapping("/student/{studentId}/enrolled")
+    @QueryBudget(3)
+    public String viewEnrolledCoursesPage(@PathVariable Long studentId, @RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Integer size,
+                                          WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.studentEnrollments(studentId))) {
+            return null;
+        }
+        model.addAttribute("studentId", studentId);
+        model.addAttribute("page", courseService.getCoursePageByStudent(studentId, after,
+                paginationProperties.resolveRosterSize(size)));
+        return "enrollments/course-lists :: enrolled-items";
+    }
+
+    /**
+     * Next page of the courses a student can enroll in, loaded by the enrollment page's "Load more" button
+     */
+    @GetMapping("/student/{studentId}/available")
+    @QueryBudget(3)
+    public String viewAvailableCoursesPage(@PathVariable Long studentId, @RequestParam(required = false) Long after,
+                                           @RequestParam(required = false) Integer size,
+                                           WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.studentEnrollments(studentId))) {
+            return null;
+        }
+        model.addAttribute("studentId", studentId);
+        model.addAttribute("page", courseService.getCoursePageNotEnrolledByStudent(studentId, after,
+                paginationProperties.resolveRosterSize(size)));
+        return "enrollments/course-lists :: available-items";
+    }
+
     /**
      * Enroll student in a course
      */
     @PostMapping("/student/{studentId}/enroll/{courseId}")
+    @QueryBudget(10)
     public String enrollStudentInCourse(@PathVariable Long studentId, @PathVariable Long courseId,
                                        RedirectAttributes redirectAttributes) {
         try {
-            Student student = studentService.getStudentById(studentId)
-                    .orElseThrow(() -> new IllegalArgumentException("Student not found"));
-            Course course = courseService.getCourseById(courseId)
-                    .orElseThrow(() -> new IllegalArgumentException("Course not found"));
-            
-            student.addCourse(course);
-            studentService.updateStudent(studentId, student);
-            
-            redirectAttributes.addFlashAttribute("successMessage", 
-                    "Student enrolled in course successfully!");
+            EnrollmentOutcome outcome = writeBehindEnrollmentService.enroll(studentId, courseId);
+            if (outcome == EnrollmentOutcome.ENROLLED) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Student enrolled in course successfully!");
+            } else if (outcome == EnrollmentOutcome.WAITLISTED) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Course is full. Student added to the waitlist at position "
+                        + enrollmentService.getWaitlistPosition(studentId, courseId) + ".");
+            } else {
+                redirectAttributes.addFlashAttribute("errorMessage", 
+                        "Student is already enrolled in this course");
+            }
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
@@ -72,23 +140,77 @@ public class EnrollmentController {
      * Unenroll student from a course
      */
     @PostMapping("/student/{studentId}/unenroll/{courseId}")
+    @QueryBudget(12) // includes promoting the first waitlisted student into the freed seat
     public String unenrollStudentFromCourse(@PathVariable Long studentId, @PathVariable Long courseId,
                                            RedirectAttributes redirectAttributes) {
         try {
-            Student student = studentService.getStudentById(studentId)
-                    .orElseThrow(() -> new IllegalArgumentException("Student not found"));
-            Course course = courseService.getCourseById(courseId)
-                    .orElseThrow(() -> new IllegalArgumentException("Course not found"));
-            
-            student.removeCourse(course);
-            studentService.updateStudent(studentId, student);
-            
-            redirectAttributes.addFlashAttribute("successMessage", 
-                    "Student unenrolled from course successfully!");
+            EnrollmentOutcome outcome = writeBehindEnrollmentService.unenroll(studentId, courseId);
+            if (outcome == EnrollmentOutcome.UNENROLLED) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Student unenrolled from course successfully!");
+            } else if (outcome == EnrollmentOutcome.LEFT_WAITLIST) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Student removed from the course waitlist");
+            } else {
+                redirectAttributes.addFlashAttribute("errorMessage", 
+                        "Student is not enrolled in this course");
+            }
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
         
         return "redirect:/enrollments/student/" + studentId;
     }
+
+    /**
+     * Enroll many students in a course
+     */
+    @PostMapping("/course/{courseId}/enroll")
+    @QueryBudget(QueryBudget.UNBOUNDED) // lookups per 1000 students, plus waitlist promotion
+    public ResponseEntity<?> enrollStudents(@PathVariable Long courseId, @RequestBody List<Long> studentIds) {
+        try {
+            return ResponseEntity.ok(enrollmentService.enrollStudents(courseId, studentIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Unenroll many students from a course
+     */
+    @PostMapping("/course/{courseId}/unenroll")
+    @QueryBudget(QueryBudget.UNBOUNDED) // lookups per 1000 students, plus waitlist promotion
+    public ResponseEntity<?> unenrollStudents(@PathVariable Long courseId, @RequestBody List<Long> studentIds) {
+        try {
+            return ResponseEntity.ok(enrollmentService.unenrollStudents(courseId, studentIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Enroll a student in many courses
+     */
+    @PostMapping("/student/{studentId}/enroll")
+    @QueryBudget(QueryBudget.UNBOUNDED) // seat updates and waitlist promotion per course touched
+    public ResponseEntity<?> enrollInCourses(@PathVariable Long studentId, @RequestBody List<Long> courseIds) {
+        try {
+            return ResponseEntity.ok(enrollmentService.enrollInCourses(studentId, courseIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Unenroll a student from many courses
+     */
+    @PostMapping("/student/{studentId}/unenroll")
+    @QueryBudget(QueryBudget.UNBOUNDED) // seat updates and waitlist promotion per course touched
+    public ResponseEntity<?> unenrollFromCourses(@PathVariable Long studentId, @RequestBody List<Long> courseIds) {
+        try {
+            return ResponseEntity.ok(enrollmentService.unenrollFromCourses(studentId, courseIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.service.DataFormat;
+import com.studentmanagement.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * Controller for streaming exports.
+ * Responses are written from a StreamingResponseBody, so the servlet thread
+ * is released and nothing is collected in memory before writing.
+ */
+@Controller
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Export students with their enrolled course IDs
+     */
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "csv") String format) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        return download("students", dataFormat, output -> exportService.exportStudents(output, dataFormat));
+    }
+
+    /**
+     * Export courses
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<StreamingResponseBody> exportCourses(@RequestParam(defaultValue = "csv") String format) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        return download("courses", dataFormat, output -> exportService.exportCourses(output, dataFormat));
+    }
+
+    /**
+     * Export enrollments as student/course ID pairs
+     */
+    @GetMapping("/enrollments")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(@RequestParam(defaultValue = "csv") String format) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        return download("enrollments", dataFormat, output -> exportService.exportEnrollments(output, dataFormat));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, DataFormat format, StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
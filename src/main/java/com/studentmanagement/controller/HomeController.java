@@ -1,7 +1,8 @@
 package com.studentmanagement.controller;
 
-import com.studentmanagement.service.CourseService;
-import com.studentmanagement.service.StudentService;
+import com.studentmanagement.dto.DashboardStatistics;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.StatisticsService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,24 +13,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class HomeController {
 
-    private final StudentService studentService;
-    private final CourseService courseService;
+    private final StatisticsService statisticsService;
 
-    public HomeController(StudentService studentService, CourseService courseService) {
-        this.studentService = studentService;
-        this.courseService = courseService;
+    public HomeController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
     }
 
     /**
      * Display home page with navigation
      */
     @GetMapping("/")
+    @QueryBudget(2)
     public String home(Model model) {
-        long studentCount = studentService.getAllStudents().size();
-        long courseCount = courseService.getAllCourses().size();
+        DashboardStatistics statistics = statisticsService.getStatistics();
         
-        model.addAttribute("studentCount", studentCount);
-        model.addAttribute("courseCount", courseCount);
+        model.addAttribute("studentCount", statistics.getStudentCount());
+        model.addAttribute("courseCount", statistics.getCourseCount());
+        model.addAttribute("statistics", statistics);
         
         return "index";
     }
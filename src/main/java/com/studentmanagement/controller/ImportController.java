@@ -0,0 +1,56 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.dto.ImportReport;
+import com.studentmanagement.service.BulkImportService;
+import com.studentmanagement.service.DataFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Controller for bulk imports.
+ * The request body is the upload itself (text/csv or application/x-ndjson)
+ * and is read as a stream, never buffered in full.
+ */
+@Controller
+@RequestMapping("/import")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    /**
+     * Import students
+     */
+    @PostMapping(value = "/students", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseBody
+    public ImportReport importStudents(HttpServletRequest request) throws IOException {
+        return bulkImportService.importStudents(request.getInputStream(),
+                DataFormat.fromContentType(request.getContentType()));
+    }
+
+    /**
+     * Import courses
+     */
+    @PostMapping(value = "/courses", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseBody
+    public ImportReport importCourses(HttpServletRequest request) throws IOException {
+        return bulkImportService.importCourses(request.getInputStream(),
+                DataFormat.fromContentType(request.getContentType()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
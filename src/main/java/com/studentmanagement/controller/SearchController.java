@@ -0,0 +1,55 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.SearchPage;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.SearchService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller for JSON search over students and courses.
+ * Results are ranked: exact and prefix matches first, name matches before
+ * email or description matches.
+ */
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+    private final PaginationProperties paginationProperties;
+
+    public SearchController(SearchService searchService, PaginationProperties paginationProperties) {
+        this.searchService = searchService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * Search students by name or email
+     */
+    @GetMapping("/students")
+    @QueryBudget(3)
+    @ResponseBody
+    public SearchPage<StudentSummary> searchStudents(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(required = false) Integer size) {
+        return searchService.searchStudents(q, Math.max(page, 0), paginationProperties.resolveSize(size));
+    }
+
+    /**
+     * Search courses by name or description
+     */
+    @GetMapping("/courses")
+    @QueryBudget(3)
+    @ResponseBody
+    public SearchPage<CourseSummary> searchCourses(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(required = false) Integer size) {
+        return searchService.searchCourses(q, Math.max(page, 0), paginationProperties.resolveSize(size));
+    }
+}
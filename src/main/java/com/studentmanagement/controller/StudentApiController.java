@@ -0,0 +1,100 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.ResourceFields;
+import com.studentmanagement.dto.StudentResource;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ResourceQueryService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+
+/**
+ * Read-only JSON API for students.
+ * Supports keyset paging, sparse fieldsets ({@code fields=name,email}) and
+ * {@code embed=enrollments}.
+ */
+@Controller
+@RequestMapping("/api/v1/students")
+public class StudentApiController {
+
+    private final ResourceQueryService resourceQueryService;
+    private final PaginationProperties paginationProperties;
+
+    public StudentApiController(ResourceQueryService resourceQueryService,
+                                PaginationProperties paginationProperties) {
+        this.resourceQueryService = resourceQueryService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * One keyset page of students
+     */
+    @GetMapping
+    @QueryBudget(2)
+    public ResponseEntity<?> listStudents(@RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Long before,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = "asc") String direction,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestParam(required = false) String embed) {
+        try {
+            ResourceFields selected = ResourceFields.parse(fields, StudentResource.FIELDS);
+            boolean withEnrollments = ApiResponses.embedsEnrollments(embed);
+            Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+            return ResponseEntity.ok(ApiResponses.select(
+                    resourceQueryService.getStudents(after, before, paginationProperties.resolveSize(size),
+                            sortDirection, selected.includes("courseCount"), withEnrollments),
+                    selected, withEnrollments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * One student
+     */
+    @GetMapping("/{id}")
+    @QueryBudget(2)
+    public ResponseEntity<?> getStudent(@PathVariable Long id,
+                                        @RequestParam(required = false) String fields,
+                                        @RequestParam(required = false) String embed) {
+        ResourceFields selected;
+        boolean withEnrollments;
+        try {
+            selected = ResourceFields.parse(fields, StudentResource.FIELDS);
+            withEnrollments = ApiResponses.embedsEnrollments(embed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponses.select(
+                    resourceQueryService.getStudent(id, withEnrollments), selected, withEnrollments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * One keyset page of a student's enrollments, ordered by course ID
+     */
+    @GetMapping("/{id}/enrollments")
+    @QueryBudget(2)
+    public ResponseEntity<?> getEnrollments(@PathVariable Long id,
+                                            @RequestParam(required = false) Long after,
+                                            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(resourceQueryService.getStudentEnrollments(
+                    id, after, paginationProperties.resolveSize(size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.studentmanagement.controller;
 
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.dto.SearchPage;
+import com.studentmanagement.dto.StudentSummary;
 import com.studentmanagement.entity.Student;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.service.ChangeTracker;
+import com.studentmanagement.service.SearchService;
 import com.studentmanagement.service.StudentService;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Controller for Student operations
@@ -17,18 +26,49 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final SearchService searchService;
+    private final PaginationProperties paginationProperties;
+    private final ChangeTracker changeTracker;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, SearchService searchService,
+                             PaginationProperties paginationProperties, ChangeTracker changeTracker) {
         this.studentService = studentService;
+        this.searchService = searchService;
+        this.paginationProperties = paginationProperties;
+        this.changeTracker = changeTracker;
     }
 
     /**
-     * Display list of students
+     * Display one keyset page of students, or one page of ranked search results when {@code q} is given
      */
     @GetMapping
-    public String listStudents(Model model) {
-        List<Student> students = studentService.getAllStudents();
-        model.addAttribute("students", students);
+    @QueryBudget(3)
+    public String listStudents(@RequestParam(required = false) String q,
+                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(required = false) Long before,
+                               @RequestParam(required = false) Integer size,
+                               @RequestParam(defaultValue = "asc") String direction,
+                               WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, Optional.of(changeTracker.studentList()))) {
+            return null;
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        int pageSize = paginationProperties.resolveSize(size);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("sizeOptions", paginationProperties.sizeOptions(pageSize));
+        model.addAttribute("direction", sortDirection.name().toLowerCase());
+
+        if (q != null && !q.isBlank()) {
+            SearchPage<StudentSummary> results = searchService.searchStudents(q, Math.max(page, 0), pageSize);
+            model.addAttribute("students", results.getItems());
+            model.addAttribute("results", results);
+            return "students/list";
+        }
+
+        KeysetPage<StudentSummary> keysetPage = studentService.getStudentPage(after, before, pageSize, sortDirection);
+        model.addAttribute("students", keysetPage.getItems());
+        model.addAttribute("page", keysetPage);
         return "students/list";
     }
 
@@ -36,7 +76,11 @@ public class StudentController {
      * Display student details
      */
     @GetMapping("/{id}")
-    public String viewStudent(@PathVariable Long id, Model model) {
+    @QueryBudget(4)
+    public String viewStudent(@PathVariable Long id, WebRequest request, Model model) {
+        if (ConditionalRequests.notModified(request, changeTracker.student(id))) {
+            return null;
+        }
         Student student = studentService.getStudentById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + id));
         
@@ -48,6 +92,7 @@ public class StudentController {
      * Display form to create new student
      */
     @GetMapping("/new")
+    @QueryBudget(1)
     public String showCreateForm(Model model) {
         model.addAttribute("student", new Student());
         return "students/form";
@@ -57,6 +102,7 @@ public class StudentController {
      * Display form to edit existing student
      */
     @GetMapping("/{id}/edit")
+    @QueryBudget(1)
     public String showEditForm(@PathVariable Long id, Model model) {
         Student student = studentService.getStudentById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + id));
@@ -69,6 +115,7 @@ public class StudentController {
      * Create new student
      */
     @PostMapping
+    @QueryBudget(3)
     public String createStudent(@ModelAttribute Student student, RedirectAttributes redirectAttributes) {
         try {
             Student createdStudent = studentService.createStudent(student);
@@ -82,16 +129,23 @@ public class StudentController {
     }
 
     /**
-     * Update existing student
+     * Update existing student. The edit form posts the version it was rendered
+     * with, so the update is a conditional UPDATE without loading the entity.
      */
     @PostMapping("/{id}")
-    public String updateStudent(@PathVariable Long id, @ModelAttribute Student student, 
+    @QueryBudget(3)
+    public String updateStudent(@PathVariable Long id, @ModelAttribute Student student,
+                               @RequestParam(required = false) Long version,
                                RedirectAttributes redirectAttributes) {
         try {
-            Student updatedStudent = studentService.updateStudent(id, student);
+            if (version != null) {
+                studentService.updateStudent(id, version, student);
+            } else {
+                studentService.updateStudent(id, student);
+            }
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Student updated successfully!");
-            return "redirect:/students/" + updatedStudent.getId();
+            return "redirect:/students/" + id;
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
             return "redirect:/students/" + id + "/edit";
@@ -102,6 +156,7 @@ public class StudentController {
      * Delete student
      */
     @PostMapping("/{id}/delete")
+    @QueryBudget(QueryBudget.UNBOUNDED) // seat updates and waitlist promotion per course left
     public String deleteStudent(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
             studentService.deleteStudent(id);
@@ -0,0 +1,57 @@
+package com.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk enroll or unenroll request
+ */
+public class BulkEnrollmentResult {
+
+    private final int requested;
+    private final List<Long> changed;
+    private final List<Long> waitlisted;
+    private final List<Long> skipped;
+    private final List<Long> unknown;
+
+    public BulkEnrollmentResult(int requested, List<Long> changed, List<Long> waitlisted, List<Long> skipped,
+                                List<Long> unknown) {
+        this.requested = requested;
+        this.changed = changed;
+        this.waitlisted = waitlisted;
+        this.skipped = skipped;
+        this.unknown = unknown;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    /**
+     * IDs whose enrollment was added or removed
+     */
+    public List<Long> getChanged() {
+        return changed;
+    }
+
+    /**
+     * IDs put on the waitlist because the course was full (enroll),
+     * or taken off the waitlist (unenroll)
+     */
+    public List<Long> getWaitlisted() {
+        return waitlisted;
+    }
+
+    /**
+     * IDs left alone because they were already in the requested state
+     */
+    public List<Long> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * IDs that do not exist
+     */
+    public List<Long> getUnknown() {
+        return unknown;
+    }
+}
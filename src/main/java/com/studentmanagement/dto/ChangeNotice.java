@@ -0,0 +1,50 @@
+package com.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * One committed change as sent on the change feed.
+ * Notices carry IDs only; clients fetch whatever they need to show.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeNotice {
+
+    private final long sequence;
+    private final String type;
+    private final Long studentId;
+    private final Long courseId;
+    private final Instant occurredAt;
+
+    public ChangeNotice(long sequence, String type, Long studentId, Long courseId, Instant occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * What changed, e.g. {@code enrollment.added} or {@code course.updated}
+     */
+    public String getType() {
+        return type;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A course as returned by the JSON API, selected straight into this shape by repository queries.
+ * {@code studentCount} is the maintained enrolled count, so it never needs a join.
+ */
+@JsonFilter(ResourceFields.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourseResource {
+
+    public static final List<String> FIELDS = List.of("id", "name", "description", "capacity", "studentCount");
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Integer capacity;
+    private final int studentCount;
+    private List<EnrollmentResource> enrollments;
+
+    public CourseResource(Long id, String name, String description, Integer capacity, int studentCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.capacity = capacity;
+        this.studentCount = studentCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public List<EnrollmentResource> getEnrollments() {
+        return enrollments;
+    }
+
+    public void setEnrollments(List<EnrollmentResource> enrollments) {
+        this.enrollments = enrollments;
+    }
+}
@@ -0,0 +1,16 @@
+package com.studentmanagement.dto;
+
+/**
+ * Read-only projection of a course row with its student count,
+ * fetched by a single grouped query for list pages
+ */
+public interface CourseSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    long getStudentCount();
+}
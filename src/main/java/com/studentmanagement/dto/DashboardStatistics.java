@@ -0,0 +1,42 @@
+package com.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Point-in-time snapshot of the dashboard counters shown on the home page
+ */
+public class DashboardStatistics {
+
+    private final long studentCount;
+    private final long courseCount;
+    private final long enrollmentCount;
+    private final List<PopularCourse> popularCourses;
+
+    public DashboardStatistics(long studentCount, long courseCount, long enrollmentCount,
+                               List<PopularCourse> popularCourses) {
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.enrollmentCount = enrollmentCount;
+        this.popularCourses = popularCourses;
+    }
+
+    public long getStudentCount() {
+        return studentCount;
+    }
+
+    public long getCourseCount() {
+        return courseCount;
+    }
+
+    public long getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public double getAverageCoursesPerStudent() {
+        return studentCount == 0 ? 0.0 : (double) enrollmentCount / studentCount;
+    }
+
+    public List<PopularCourse> getPopularCourses() {
+        return popularCourses;
+    }
+}
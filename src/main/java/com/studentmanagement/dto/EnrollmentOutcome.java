@@ -0,0 +1,14 @@
+package com.studentmanagement.dto;
+
+/**
+ * Result of a single enroll or unenroll request
+ */
+public enum EnrollmentOutcome {
+
+    ENROLLED,
+    WAITLISTED,
+    ALREADY_ENROLLED,
+    UNENROLLED,
+    LEFT_WAITLIST,
+    NOT_ENROLLED
+}
@@ -0,0 +1,36 @@
+package com.studentmanagement.dto;
+
+/**
+ * One student/course enrollment as returned by the JSON API, with both names so
+ * clients need no follow-up lookups
+ */
+public class EnrollmentResource {
+
+    private final Long studentId;
+    private final String studentName;
+    private final Long courseId;
+    private final String courseName;
+
+    public EnrollmentResource(Long studentId, String studentName, Long courseId, String courseName) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.courseId = courseId;
+        this.courseName = courseName;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+}
@@ -0,0 +1,11 @@
+package com.studentmanagement.dto;
+
+/**
+ * Read-only projection of one row of the student_courses join table
+ */
+public interface EnrollmentRow {
+
+    Long getStudentId();
+
+    Long getCourseId();
+}
@@ -0,0 +1,68 @@
+package com.studentmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: per-row errors and a throughput summary
+ */
+public class ImportReport {
+
+    private final int maxReportedErrors;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long elapsedMillis;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void rowRead() {
+        totalRows++;
+    }
+
+    public void rowsImported(int count) {
+        importedRows += count;
+    }
+
+    public void rowFailed(long row, String message) {
+        failedRows++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ImportRowError(row, message));
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failedRows > errors.size();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? totalRows : totalRows * 1000.0 / elapsedMillis;
+    }
+}
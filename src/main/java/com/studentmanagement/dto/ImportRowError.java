@@ -0,0 +1,23 @@
+package com.studentmanagement.dto;
+
+/**
+ * A row rejected by the bulk import, numbered from 1 excluding any CSV header
+ */
+public class ImportRowError {
+
+    private final long row;
+    private final String message;
+
+    public ImportRowError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
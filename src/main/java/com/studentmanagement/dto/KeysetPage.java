@@ -0,0 +1,82 @@
+package com.studentmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * Cursors are the ids of the first and last rows, so fetching the next or
+ * previous page is an index range scan whatever the table size.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+    private final Long previousCursor;
+    private final int size;
+
+    public KeysetPage(List<T> items, Long nextCursor, Long previousCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.size = size;
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of {@code size + 1}.
+     * Rows must be in query order: when paging backwards they arrive reversed
+     * and are flipped back into display order here.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, boolean backward, boolean hasCursor,
+                                       Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+
+        boolean hasNext = backward ? hasCursor : hasMore;
+        boolean hasPrevious = backward ? hasMore : hasCursor;
+
+        Long nextCursor = hasNext && !items.isEmpty() ? idOf.apply(items.get(items.size() - 1)) : null;
+        Long previousCursor = hasPrevious && !items.isEmpty() ? idOf.apply(items.get(0)) : null;
+        return new KeysetPage<>(items, nextCursor, previousCursor, size);
+    }
+
+    /**
+     * The same page with its items replaced, such as IDs by the rows they identify
+     */
+    public <R> KeysetPage<R> withItems(List<R> items) {
+        return new KeysetPage<>(items, nextCursor, previousCursor, size);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
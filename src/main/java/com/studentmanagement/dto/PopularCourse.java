@@ -0,0 +1,29 @@
+package com.studentmanagement.dto;
+
+/**
+ * A course together with its number of enrolled students
+ */
+public class PopularCourse {
+
+    private final Long id;
+    private final String name;
+    private final long studentCount;
+
+    public PopularCourse(Long id, String name, long studentCount) {
+        this.id = id;
+        this.name = name;
+        this.studentCount = studentCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStudentCount() {
+        return studentCount;
+    }
+}
@@ -0,0 +1,62 @@
+package com.studentmanagement.dto;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested with {@code fields=}. A {@code null} selection means every field.
+ * The id is always included so clients can follow up on what they were given.
+ */
+public final class ResourceFields {
+
+    /**
+     * Jackson filter id the API resources are annotated with
+     */
+    public static final String FILTER = "fields";
+
+    private final Set<String> fields;
+
+    private ResourceFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parse a comma separated {@code fields} parameter against the fields a resource has
+     */
+    public static ResourceFields parse(String param, List<String> available) {
+        if (param == null || param.isBlank()) {
+            return new ResourceFields(null);
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        for (String field : param.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected one of " + available);
+            }
+            fields.add(name);
+        }
+        return new ResourceFields(fields);
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Properties to serialise, or {@code null} for all of them
+     */
+    public Set<String> toPropertySet(Collection<String> extra) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> properties = new LinkedHashSet<>(fields);
+        properties.addAll(extra);
+        return properties;
+    }
+}
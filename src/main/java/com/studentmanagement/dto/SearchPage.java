@@ -0,0 +1,66 @@
+package com.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results.
+ * Results are ordered by relevance rather than ID, so pages are numbered
+ * instead of keyed by a cursor.
+ */
+public class SearchPage<T> {
+
+    private final String query;
+    private final List<T> items;
+    private final int page;
+    private final int size;
+    private final long total;
+    private final boolean totalExact;
+
+    public SearchPage(String query, List<T> items, int page, int size, long total, boolean totalExact) {
+        this.query = query;
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.totalExact = totalExact;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * False when the total is an upper-bound estimate
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total;
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.studentmanagement.dto;
+
+/**
+ * Read-only projection of the searchable text of a student or course:
+ * the name, and the email or description
+ */
+public interface SearchRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDetail();
+}
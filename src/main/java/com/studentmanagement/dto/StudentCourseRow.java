@@ -0,0 +1,16 @@
+package com.studentmanagement.dto;
+
+/**
+ * Read-only projection of one student joined with one of its course IDs.
+ * Students without enrollments appear once with a null course ID.
+ */
+public interface StudentCourseRow {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    Long getCourseId();
+}
@@ -0,0 +1,62 @@
+package com.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A student as returned by the JSON API, selected straight into this shape by repository queries.
+ * {@code courseCount} and {@code enrollments} are only filled in when asked for.
+ */
+@JsonFilter(ResourceFields.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentResource {
+
+    public static final List<String> FIELDS = List.of("id", "name", "email", "courseCount");
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final Long courseCount;
+    private List<EnrollmentResource> enrollments;
+
+    public StudentResource(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
+
+    public StudentResource(Long id, String name, String email, Long courseCount) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.courseCount = courseCount;
+    }
+
+    public static StudentResource of(StudentSummary summary) {
+        return new StudentResource(summary.getId(), summary.getName(), summary.getEmail(), summary.getCourseCount());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getCourseCount() {
+        return courseCount;
+    }
+
+    public List<EnrollmentResource> getEnrollments() {
+        return enrollments;
+    }
+
+    public void setEnrollments(List<EnrollmentResource> enrollments) {
+        this.enrollments = enrollments;
+    }
+}
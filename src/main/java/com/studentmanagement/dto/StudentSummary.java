@@ -0,0 +1,16 @@
+package com.studentmanagement.dto;
+
+/**
+ * Read-only projection of a student row with its enrollment count,
+ * fetched by a single grouped query for list pages
+ */
+public interface StudentSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    long getCourseCount();
+}
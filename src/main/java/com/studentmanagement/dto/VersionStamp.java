@@ -0,0 +1,13 @@
+package com.studentmanagement.dto;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of an entity's version and last modification time
+ */
+public interface VersionStamp {
+
+    long getVersion();
+
+    Instant getLastModified();
+}
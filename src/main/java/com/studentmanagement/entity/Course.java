@@ -1,21 +1,35 @@
 package com.studentmanagement.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Course entity representing a course in the system
+ * Course entity representing a course in the system.
+ * Cached as nonstrict-read-write so that updates evict rather than re-cache
+ * the entry; enrolled_count changes outside Hibernate and must be reloaded.
  */
 @Entity
 @Table(name = "courses")
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "course_id")
+    @GenericGenerator(name = "course_id", type = PooledIdGenerator.class)
     private Long id;
 
     @NotBlank(message = "Course name is required")
@@ -27,9 +41,37 @@ public class Course {
     @Column(name = "description", length = 1000)
     private String description;
 
+    /**
+     * Maximum number of enrolled students, or null for no limit
+     */
+    @Min(value = 1, message = "Capacity must be at least 1")
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    /**
+     * Number of taken seats. Maintained only by conditional SQL updates in
+     * EnrollmentService, so Hibernate never writes it.
+     */
+    @ColumnDefault("0")
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    private int enrolledCount;
+
     @ManyToMany(mappedBy = "courses", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private Set<Student> students = new HashSet<>();
 
+    /**
+     * Incremented by Hibernate on every update; part of the page ETags
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @LastModifiedDate
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
     // Constructors
     public Course() {}
 
@@ -63,6 +105,25 @@ public class Course {
         this.description = description;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getEnrolledCount() {
+        return enrolledCount;
+    }
+
+    /**
+     * Check if every seat is taken
+     */
+    public boolean isFull() {
+        return capacity != null && enrolledCount >= capacity;
+    }
+
     public Set<Student> getStudents() {
         return students;
     }
@@ -70,4 +131,12 @@ public class Course {
     public void setStudents(Set<Student> students) {
         this.students = students;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
 }
@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,11 +19,21 @@ import java.util.Set;
  * Student entity representing a student in the system
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students",
+       uniqueConstraints = @UniqueConstraint(name = Student.EMAIL_CONSTRAINT, columnNames = "email"))
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Student {
 
+    /**
+     * Name of the unique constraint on the email column
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_students_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "student_id")
+    @GenericGenerator(name = "student_id", type = PooledIdGenerator.class)
     private Long id;
 
     @NotBlank(message = "Student name is required")
@@ -26,7 +43,7 @@ public class Student {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
-    @Column(name = "email", nullable = false, unique = true, length = 255)
+    @Column(name = "email", nullable = false, length = 255)
     private String email;
 
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
@@ -37,6 +54,19 @@ public class Student {
     )
     private Set<Course> courses = new HashSet<>();
 
+    /**
+     * Incremented by Hibernate on every update; part of the page ETags
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @LastModifiedDate
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
     // Constructors
     public Student() {}
 
@@ -93,4 +123,12 @@ public class Student {
         this.courses.remove(course);
         course.getStudents().remove(this);
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
 }
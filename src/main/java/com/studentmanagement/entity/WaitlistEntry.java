@@ -0,0 +1,48 @@
+package com.studentmanagement.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A student waiting for a seat in a full course.
+ * Entries are written by EnrollmentService and promoted in ID order as seats are released.
+ */
+@Entity
+@Table(name = "course_waitlist",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"course_id", "student_id"}),
+       indexes = @Index(name = "idx_waitlist_course", columnList = "course_id, id"))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
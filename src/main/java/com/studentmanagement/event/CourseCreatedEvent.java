@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a course has been created
+ */
+public record CourseCreatedEvent(Long courseId, String name, String description) {
+}
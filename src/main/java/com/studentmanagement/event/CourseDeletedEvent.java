@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a course has been deleted
+ */
+public record CourseDeletedEvent(Long courseId) {
+}
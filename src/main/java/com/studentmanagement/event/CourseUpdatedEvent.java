@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a course's details have been updated
+ */
+public record CourseUpdatedEvent(Long courseId, String name, String description) {
+}
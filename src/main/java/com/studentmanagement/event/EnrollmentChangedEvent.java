@@ -0,0 +1,15 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a student has been enrolled in or unenrolled from a course
+ */
+public record EnrollmentChangedEvent(Long studentId, Long courseId, boolean enrolled) {
+
+    public static EnrollmentChangedEvent enrolled(Long studentId, Long courseId) {
+        return new EnrollmentChangedEvent(studentId, courseId, true);
+    }
+
+    public static EnrollmentChangedEvent unenrolled(Long studentId, Long courseId) {
+        return new EnrollmentChangedEvent(studentId, courseId, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.studentmanagement.event;
+
+/**
+ * Published when an enrollment change has been journaled but not yet written to the database.
+ * An {@link EnrollmentChangedEvent} follows once it is, unless a later change cancels it out.
+ */
+public record EnrollmentQueuedEvent(Long studentId, Long courseId, boolean enrolled) {
+}
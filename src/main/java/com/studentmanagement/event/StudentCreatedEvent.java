@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a student has been created
+ */
+public record StudentCreatedEvent(Long studentId, String name, String email) {
+}
@@ -0,0 +1,8 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a student has been deleted.
+ * Their enrollments are withdrawn first, each with its own EnrollmentChangedEvent.
+ */
+public record StudentDeletedEvent(Long studentId, String email) {
+}
@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a student's details have been updated
+ */
+public record StudentUpdatedEvent(Long studentId, String previousEmail, String name, String email) {
+}
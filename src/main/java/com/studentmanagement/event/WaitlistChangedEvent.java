@@ -0,0 +1,7 @@
+package com.studentmanagement.event;
+
+/**
+ * Published after a student has joined or left a course's waitlist without being enrolled or unenrolled
+ */
+public record WaitlistChangedEvent(Long studentId, Long courseId, boolean waiting) {
+}
@@ -0,0 +1,36 @@
+package com.studentmanagement.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Second-level cache hit ratio, which the Hibernate statistics binder only
+ * exposes as separate hit and miss counts
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, HibernateCacheMetrics::hitRatio)
+                .description("Share of second-level cache lookups that were hits")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long lookups = hits + statistics.getSecondLevelCacheMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,27 @@
+package com.studentmanagement.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a handler may issue per request,
+ * view rendering included. Checked by {@link QueryBudgetFilter}.
+ *
+ * Handlers whose statements grow with the rows they change, such as bulk
+ * enrollments, declare {@link #UNBOUNDED} rather than a guessed ceiling.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Exempts a handler from the check; its cost is covered by tests instead
+     */
+    int UNBOUNDED = -1;
+
+    int value();
+}
@@ -0,0 +1,11 @@
+package com.studentmanagement.monitoring;
+
+/**
+ * Thrown in fail mode when a request issues more SQL statements than its {@link QueryBudget}
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
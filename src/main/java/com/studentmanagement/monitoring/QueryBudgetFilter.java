@@ -0,0 +1,112 @@
+package com.studentmanagement.monitoring;
+
+import com.studentmanagement.config.MonitoringProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+
+/**
+ * Compares the SQL statements each request issued, view rendering included,
+ * against the budget of its handler. Budgets come from {@link QueryBudget}
+ * and can be overridden per URI pattern with {@code app.monitoring.query-budgets}.
+ *
+ * Over-budget requests are logged in warn mode. In fail mode the budget is
+ * enforced by {@link SqlStatementCounter} from the moment the handler is
+ * known: the first statement over it throws a {@link QueryBudgetExceededException},
+ * which rolls the handler's transaction back rather than failing a request
+ * whose changes were already committed.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private static final String STATEMENTS_BEFORE_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".statementsBefore";
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MonitoringProperties properties;
+
+    public QueryBudgetFilter(SqlStatementCounter sqlStatementCounter, MonitoringProperties properties) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return properties.getQueryBudgetMode() == MonitoringProperties.QueryBudgetMode.OFF;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long statementsBefore = sqlStatementCounter.count();
+        request.setAttribute(STATEMENTS_BEFORE_ATTRIBUTE, statementsBefore);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            sqlStatementCounter.clearLimit();
+        }
+        if (properties.getQueryBudgetMode() == MonitoringProperties.QueryBudgetMode.FAIL) {
+            return;
+        }
+
+        long statements = sqlStatementCounter.count() - statementsBefore;
+        Integer budget = budget(request);
+        if (budget != null && budget != QueryBudget.UNBOUNDED && statements > budget) {
+            log.warn("Request {} {} issued {} SQL statements, over its budget of {}", request.getMethod(),
+                    request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), statements, budget);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object statementsBefore = request.getAttribute(STATEMENTS_BEFORE_ATTRIBUTE);
+        if (properties.getQueryBudgetMode() != MonitoringProperties.QueryBudgetMode.FAIL
+                || !(statementsBefore instanceof Long before)) {
+            return true;
+        }
+        Integer budget = budget(request);
+        if (budget != null && budget != QueryBudget.UNBOUNDED) {
+            sqlStatementCounter.limit(before + budget, () -> new QueryBudgetExceededException(
+                    "Request " + request.getMethod() + " "
+                            + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+                            + " tried to issue more than its budget of " + budget + " SQL statements"));
+        }
+        return true;
+    }
+
+    private Integer budget(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            Integer configured = properties.getQueryBudgets().get(request.getMethod() + " " + pattern);
+            if (configured != null) {
+                return configured;
+            }
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget annotation = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (annotation != null) {
+                return annotation.value();
+            }
+        }
+        return null;
+    }
+}
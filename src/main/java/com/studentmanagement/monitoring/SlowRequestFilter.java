@@ -0,0 +1,65 @@
+package com.studentmanagement.monitoring;
+
+import com.studentmanagement.config.MonitoringProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the SQL statement count of every request and logs requests slower
+ * than {@code app.monitoring.slow-request-threshold}.
+ * Only statements run on the request thread are counted.
+ */
+@Component
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestFilter.class);
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+
+    public SlowRequestFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry,
+                             MonitoringProperties properties) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = properties.getSlowRequestThreshold().toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        long statementsBefore = sqlStatementCounter.count();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            long statements = sqlStatementCounter.count() - statementsBefore;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements issued per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements);
+            if (elapsed >= thresholdNanos) {
+                log.warn("Slow request {} {} took {} ms with {} SQL statements", request.getMethod(),
+                        request.getRequestURI(), elapsed / 1_000_000, statements);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.studentmanagement.monitoring;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements each thread prepares, whether issued by
+ * Hibernate or JdbcTemplate, by wrapping every DataSource bean.
+ *
+ * The count only grows, so callers take the difference between two reads.
+ * A JDBC batch counts once however many rows it carries.
+ *
+ * A thread can also be given a limit, past which preparing a statement
+ * fails instead of reaching the database.
+ */
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final ThreadLocal<long[]> statements = ThreadLocal.withInitial(() -> new long[1]);
+    private final ThreadLocal<Limit> limits = new ThreadLocal<>();
+
+    /**
+     * Statements prepared on the current thread so far
+     */
+    public long count() {
+        return statements.get()[0];
+    }
+
+    /**
+     * Fail every statement the current thread prepares once its {@link #count()}
+     * would pass {@code maxCount}, until {@link #clearLimit()} is called
+     */
+    public void limit(long maxCount, Supplier<? extends RuntimeException> failure) {
+        limits.set(new Limit(maxCount, failure));
+    }
+
+    public void clearLimit() {
+        limits.remove();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? countingConnection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            if (STATEMENT_METHODS.contains(method.getName())) {
+                long[] count = statements.get();
+                Limit limit = limits.get();
+                if (limit != null && count[0] >= limit.maxCount()) {
+                    throw limit.failure().get();
+                }
+                count[0]++;
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetHandler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            // Unwrapping must reach the real object, e.g. for the connection pool metrics
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                Class<?> iface = (Class<?>) args[0];
+                if (iface.isInstance(target)) {
+                    return method.getName().equals("unwrap") ? target : true;
+                }
+            }
+            return handler.invoke(target, method, args);
+        };
+        // Keep close() reachable so the pool is still shut down with the context
+        Class<?>[] interfaces = target instanceof AutoCloseable
+                ? new Class<?>[] {type, AutoCloseable.class}
+                : new Class<?>[] {type};
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), interfaces, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record Limit(long maxCount, Supplier<? extends RuntimeException> failure) {
+    }
+
+    @FunctionalInterface
+    private interface TargetHandler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+}
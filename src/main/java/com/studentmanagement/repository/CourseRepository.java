@@ -1,12 +1,27 @@
 package com.studentmanagement.repository;
 
+import com.studentmanagement.dto.CourseResource;
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.EnrollmentResource;
+import com.studentmanagement.dto.PopularCourse;
+import com.studentmanagement.dto.SearchRow;
+import com.studentmanagement.dto.VersionStamp;
 import com.studentmanagement.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Course entity
@@ -25,4 +40,132 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
      */
     @Query("SELECT c FROM Course c WHERE c.id NOT IN (SELECT c2.id FROM Course c2 JOIN c2.students s WHERE s.id = :studentId)")
     List<Course> findNotEnrolledByStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Keyset page of course summaries after the cursor, ascending, with students counted in the same query
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.description AS description, COUNT(s) AS studentCount " +
+           "FROM Course c LEFT JOIN c.students s WHERE c.id > :id " +
+           "GROUP BY c.id, c.name, c.description ORDER BY c.id ASC")
+    List<CourseSummary> findSummariesAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset page of course summaries before the cursor, descending, with students counted in the same query
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.description AS description, COUNT(s) AS studentCount " +
+           "FROM Course c LEFT JOIN c.students s WHERE c.id < :id " +
+           "GROUP BY c.id, c.name, c.description ORDER BY c.id DESC")
+    List<CourseSummary> findSummariesBefore(@Param("id") Long id, Limit limit);
+
+    /**
+     * Version and last modification time of one course, for conditional requests
+     */
+    @Query("SELECT c.version AS version, c.lastModified AS lastModified FROM Course c WHERE c.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Keyset page of API course resources after the cursor, ascending
+     */
+    @Query("SELECT new com.studentmanagement.dto.CourseResource(c.id, c.name, c.description, c.capacity, c.enrolledCount) " +
+           "FROM Course c WHERE c.id > :id ORDER BY c.id ASC")
+    List<CourseResource> findResourcesAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset page of API course resources before the cursor, descending
+     */
+    @Query("SELECT new com.studentmanagement.dto.CourseResource(c.id, c.name, c.description, c.capacity, c.enrolledCount) " +
+           "FROM Course c WHERE c.id < :id ORDER BY c.id DESC")
+    List<CourseResource> findResourcesBefore(@Param("id") Long id, Limit limit);
+
+    /**
+     * One API course resource
+     */
+    @Query("SELECT new com.studentmanagement.dto.CourseResource(c.id, c.name, c.description, c.capacity, c.enrolledCount) " +
+           "FROM Course c WHERE c.id = :id")
+    Optional<CourseResource> findResourceById(@Param("id") Long id);
+
+    /**
+     * Enrollments of all the given courses in one query, ordered by course then student
+     */
+    @Query("SELECT new com.studentmanagement.dto.EnrollmentResource(s.id, s.name, c.id, c.name) " +
+           "FROM Course c JOIN c.students s WHERE c.id IN :courseIds ORDER BY c.id, s.id")
+    List<EnrollmentResource> findEnrollmentsByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Keyset page of one course's enrollments, ordered by student ID
+     */
+    @Query("SELECT new com.studentmanagement.dto.EnrollmentResource(s.id, s.name, c.id, c.name) " +
+           "FROM Course c JOIN c.students s WHERE c.id = :courseId AND s.id > :after ORDER BY s.id")
+    List<EnrollmentResource> findEnrollmentsOfCourse(@Param("courseId") Long courseId,
+                                                     @Param("after") Long after, Limit limit);
+
+    /**
+     * Find the IDs of all courses in ascending order
+     */
+    @Query("SELECT c.id FROM Course c ORDER BY c.id")
+    List<Long> findAllIds();
+
+    /**
+     * Find the IDs of the courses a student is enrolled in
+     */
+    @Query("SELECT c.id FROM Course c JOIN c.students s WHERE s.id = :studentId")
+    List<Long> findIdsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Find which of the given course IDs exist
+     */
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find which of the given courses a student is enrolled in
+     */
+    @Query("SELECT c.id FROM Course c JOIN c.students s WHERE s.id = :studentId AND c.id IN :courseIds")
+    Set<Long> findIdsEnrolledByStudent(@Param("studentId") Long studentId,
+                                       @Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Count enrolled students for every course in one grouped query
+     */
+    @Query("SELECT new com.studentmanagement.dto.PopularCourse(c.id, c.name, COUNT(s)) " +
+           "FROM Course c LEFT JOIN c.students s GROUP BY c.id, c.name")
+    List<PopularCourse> findEnrollmentCounts();
+
+    /**
+     * Stream every course ordered by ID.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StudentRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    Stream<Course> streamAll();
+
+    /**
+     * Course summaries for the given IDs, in no particular order
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.description AS description, COUNT(s) AS studentCount " +
+           "FROM Course c LEFT JOIN c.students s WHERE c.id IN :ids GROUP BY c.id, c.name, c.description")
+    List<CourseSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the searchable text of every course.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StudentRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT c.id AS id, c.name AS title, c.description AS detail FROM Course c")
+    Stream<SearchRow> streamSearchRows();
+
+    /**
+     * Find IDs of courses whose name or description matches a lower-case LIKE pattern.
+     * A table scan, used only while the search index is unavailable.
+     */
+    @Query("SELECT c.id FROM Course c WHERE LOWER(c.name) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(c.description) LIKE :pattern ESCAPE '\\' ORDER BY c.id")
+    List<Long> findIdsMatching(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Count courses whose name or description matches a lower-case LIKE pattern
+     */
+    @Query("SELECT COUNT(c) FROM Course c WHERE LOWER(c.name) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(c.description) LIKE :pattern ESCAPE '\\'")
+    long countMatching(@Param("pattern") String pattern);
 }
@@ -1,13 +1,28 @@
 package com.studentmanagement.repository;
 
+import com.studentmanagement.dto.EnrollmentResource;
+import com.studentmanagement.dto.EnrollmentRow;
+import com.studentmanagement.dto.SearchRow;
+import com.studentmanagement.dto.StudentCourseRow;
+import com.studentmanagement.dto.StudentResource;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.dto.VersionStamp;
 import com.studentmanagement.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Student entity
@@ -15,6 +30,11 @@ import java.util.Optional;
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
+    /**
+     * JDBC fetch size for the streaming export queries
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
     /**
      * Find student by email
      */
@@ -25,15 +45,146 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Find which of the given emails are already taken
+     */
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Find which of the given student IDs exist
+     */
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find which of the given students are enrolled in a course
+     */
+    @Query("SELECT s.id FROM Student s JOIN s.courses c WHERE c.id = :courseId AND s.id IN :studentIds")
+    Set<Long> findIdsEnrolledInCourse(@Param("courseId") Long courseId,
+                                      @Param("studentIds") Collection<Long> studentIds);
+
     /**
      * Find students enrolled in a specific course
      */
     @Query("SELECT s FROM Student s JOIN s.courses c WHERE c.id = :courseId")
     List<Student> findByCourseId(@Param("courseId") Long courseId);
 
+    /**
+     * Keyset page of the IDs of students enrolled in a course, read from the join table
+     */
+    @Query("SELECT s.id FROM Student s JOIN s.courses c WHERE c.id = :courseId AND s.id > :after ORDER BY s.id")
+    List<Long> findIdsByCourseIdAfter(@Param("courseId") Long courseId, @Param("after") Long after, Limit limit);
+
     /**
      * Find students not enrolled in a specific course
      */
     @Query("SELECT s FROM Student s WHERE s.id NOT IN (SELECT s2.id FROM Student s2 JOIN s2.courses c WHERE c.id = :courseId)")
     List<Student> findNotEnrolledInCourse(@Param("courseId") Long courseId);
+
+    /**
+     * Keyset page of student summaries after the cursor, ascending, with courses counted in the same query
+     */
+    @Query("SELECT s.id AS id, s.name AS name, s.email AS email, COUNT(c) AS courseCount " +
+           "FROM Student s LEFT JOIN s.courses c WHERE s.id > :id " +
+           "GROUP BY s.id, s.name, s.email ORDER BY s.id ASC")
+    List<StudentSummary> findSummariesAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset page of student summaries before the cursor, descending, with courses counted in the same query
+     */
+    @Query("SELECT s.id AS id, s.name AS name, s.email AS email, COUNT(c) AS courseCount " +
+           "FROM Student s LEFT JOIN s.courses c WHERE s.id < :id " +
+           "GROUP BY s.id, s.name, s.email ORDER BY s.id DESC")
+    List<StudentSummary> findSummariesBefore(@Param("id") Long id, Limit limit);
+
+    /**
+     * Version and last modification time of one student, for conditional requests
+     */
+    @Query("SELECT s.version AS version, s.lastModified AS lastModified FROM Student s WHERE s.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Keyset page of API student resources after the cursor, ascending, without counting courses
+     */
+    @Query("SELECT new com.studentmanagement.dto.StudentResource(s.id, s.name, s.email) " +
+           "FROM Student s WHERE s.id > :id ORDER BY s.id ASC")
+    List<StudentResource> findResourcesAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset page of API student resources before the cursor, descending, without counting courses
+     */
+    @Query("SELECT new com.studentmanagement.dto.StudentResource(s.id, s.name, s.email) " +
+           "FROM Student s WHERE s.id < :id ORDER BY s.id DESC")
+    List<StudentResource> findResourcesBefore(@Param("id") Long id, Limit limit);
+
+    /**
+     * Enrollments of all the given students in one query, ordered by student then course
+     */
+    @Query("SELECT new com.studentmanagement.dto.EnrollmentResource(s.id, s.name, c.id, c.name) " +
+           "FROM Student s JOIN s.courses c WHERE s.id IN :studentIds ORDER BY s.id, c.id")
+    List<EnrollmentResource> findEnrollmentsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Keyset page of one student's enrollments, ordered by course ID
+     */
+    @Query("SELECT new com.studentmanagement.dto.EnrollmentResource(s.id, s.name, c.id, c.name) " +
+           "FROM Student s JOIN s.courses c WHERE s.id = :studentId AND c.id > :after ORDER BY c.id")
+    List<EnrollmentResource> findEnrollmentsOfStudent(@Param("studentId") Long studentId,
+                                                      @Param("after") Long after, Limit limit);
+
+    /**
+     * Stream every student with its enrolled course IDs, one row per enrollment, ordered by student ID.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT s.id AS id, s.name AS name, s.email AS email, c.id AS courseId " +
+           "FROM Student s LEFT JOIN s.courses c ORDER BY s.id, c.id")
+    Stream<StudentCourseRow> streamAllWithCourseIds();
+
+    /**
+     * Stream every enrollment ordered by student ID.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT s.id AS studentId, c.id AS courseId FROM Student s JOIN s.courses c ORDER BY s.id, c.id")
+    Stream<EnrollmentRow> streamAllEnrollments();
+
+    /**
+     * Student summaries for the given IDs, in no particular order
+     */
+    @Query("SELECT s.id AS id, s.name AS name, s.email AS email, COUNT(c) AS courseCount " +
+           "FROM Student s LEFT JOIN s.courses c WHERE s.id IN :ids GROUP BY s.id, s.name, s.email")
+    List<StudentSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the searchable text of every student.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT s.id AS id, s.name AS title, s.email AS detail FROM Student s")
+    Stream<SearchRow> streamSearchRows();
+
+    /**
+     * Find IDs of students whose name or email matches a lower-case LIKE pattern.
+     * A table scan, used only while the search index is unavailable.
+     */
+    @Query("SELECT s.id FROM Student s WHERE LOWER(s.name) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(s.email) LIKE :pattern ESCAPE '\\' ORDER BY s.id")
+    List<Long> findIdsMatching(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Count students whose name or email matches a lower-case LIKE pattern
+     */
+    @Query("SELECT COUNT(s) FROM Student s WHERE LOWER(s.name) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(s.email) LIKE :pattern ESCAPE '\\'")
+    long countMatching(@Param("pattern") String pattern);
+
+    /**
+     * Stream every student email.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT s.email FROM Student s")
+    Stream<String> streamAllEmails();
 }
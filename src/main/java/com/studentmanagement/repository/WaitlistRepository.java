@@ -0,0 +1,67 @@
+package com.studentmanagement.repository;
+
+import com.studentmanagement.entity.WaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository interface for WaitlistEntry entity
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Find the students at the head of a course's waitlist, first come first served
+     */
+    @Query("SELECT w.student.id FROM WaitlistEntry w WHERE w.course.id = :courseId ORDER BY w.id")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId, Limit limit);
+
+    /**
+     * Find which of the given students are waitlisted for a course
+     */
+    @Query("SELECT w.student.id FROM WaitlistEntry w WHERE w.course.id = :courseId AND w.student.id IN :studentIds")
+    Set<Long> findWaitlistedStudentIds(@Param("courseId") Long courseId,
+                                       @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Find which of the given courses a student is waitlisted for
+     */
+    @Query("SELECT w.course.id FROM WaitlistEntry w WHERE w.student.id = :studentId AND w.course.id IN :courseIds")
+    Set<Long> findWaitlistedCourseIds(@Param("studentId") Long studentId,
+                                      @Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Count students waiting for a seat in a course
+     */
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.course.id = :courseId")
+    long countByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Position of a student in a course's waitlist, starting at 1, or 0 if not waitlisted
+     */
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.course.id = :courseId AND w.id <= " +
+           "(SELECT w2.id FROM WaitlistEntry w2 WHERE w2.course.id = :courseId AND w2.student.id = :studentId)")
+    long findPosition(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    /**
+     * Remove a student from every waitlist
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Remove every waitlist entry of a course
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
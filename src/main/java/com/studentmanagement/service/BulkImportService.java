@@ -0,0 +1,269 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.config.ImportProperties;
+import com.studentmanagement.dto.ImportReport;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Service for streaming bulk imports of students and courses.
+ * Rows are read one at a time, validated with the entity constraints and
+ * written in JDBC batches, one transaction per batch.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String INSERT_STUDENT = "INSERT INTO students (id, name, email) VALUES (?, ?, ?)";
+    private static final String INSERT_COURSE = "INSERT INTO courses (id, name, description) VALUES (?, ?, ?)";
+
+    private final StudentEmailFilter studentEmailFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportProperties properties;
+
+    public BulkImportService(StudentEmailFilter studentEmailFilter, JdbcTemplate jdbcTemplate,
+                             IdAllocator idAllocator, TransactionTemplate transactionTemplate, Validator validator,
+                             ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             ImportProperties properties) {
+        this.studentEmailFilter = studentEmailFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    /**
+     * Import students from a CSV or NDJSON stream with {@code name} and {@code email} fields
+     */
+    public ImportReport importStudents(InputStream input, DataFormat format) throws IOException {
+        return importRows(input, format,
+                record -> new Student(trim(record.get("name")), trim(record.get("email"))),
+                this::writeStudents);
+    }
+
+    /**
+     * Import courses from a CSV or NDJSON stream with {@code name} and {@code description} fields
+     */
+    public ImportReport importCourses(InputStream input, DataFormat format) throws IOException {
+        return importRows(input, format,
+                record -> new Course(trim(record.get("name")), trim(record.get("description"))),
+                this::writeCourses);
+    }
+
+    private <T> ImportReport importRows(InputStream input, DataFormat format,
+                                        RowMapper<T> mapper, BatchWriter<T> writer) throws IOException {
+        ImportReport report = new ImportReport(properties.getMaxReportedErrors());
+        long started = System.nanoTime();
+
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (ImportRecordReader reader = ImportRecordReader.create(format, bufferedReader, objectMapper)) {
+            List<PendingRow<T>> batch = new ArrayList<>(properties.getBatchSize());
+            long rowNumber = 0;
+            while (true) {
+                Map<String, String> record;
+                rowNumber++;
+                try {
+                    record = reader.next();
+                } catch (IllegalArgumentException e) {
+                    report.rowRead();
+                    report.rowFailed(rowNumber, e.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                report.rowRead();
+
+                T entity = mapper.map(record);
+                Set<ConstraintViolation<T>> violations = validator.validate(entity);
+                if (!violations.isEmpty()) {
+                    report.rowFailed(rowNumber, violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                batch.add(new PendingRow<>(rowNumber, entity));
+                if (batch.size() == properties.getBatchSize()) {
+                    writer.write(batch, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writer.write(batch, report);
+            }
+        }
+
+        report.finish((System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} of {} rows in {} ms ({} rows/s)", report.getImportedRows(), report.getTotalRows(),
+                report.getElapsedMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void writeStudents(List<PendingRow<Student>> batch, ImportReport report) {
+        // De-duplicate within the batch first, then against the table in one query
+        Map<String, PendingRow<Student>> byEmail = new LinkedHashMap<>();
+        for (PendingRow<Student> row : batch) {
+            if (byEmail.putIfAbsent(row.entity().getEmail(), row) != null) {
+                report.rowFailed(row.number(), "Duplicate email " + row.entity().getEmail() + " in upload");
+            }
+        }
+
+        try {
+            insertNewStudents(byEmail, report);
+        } catch (DuplicateKeyException e) {
+            // A concurrent writer took one of the emails between the check and the insert
+            log.debug("Importing batch row by row after a concurrent email conflict", e);
+            insertStudentsOneByOne(byEmail.values(), report);
+        }
+    }
+
+    private void insertNewStudents(Map<String, PendingRow<Student>> byEmail, ImportReport report) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> existing = studentEmailFilter.findExistingEmails(byEmail.keySet());
+            List<PendingRow<Student>> rows = new ArrayList<>(byEmail.size());
+            for (PendingRow<Student> row : byEmail.values()) {
+                if (existing.contains(row.entity().getEmail())) {
+                    report.rowFailed(row.number(), "Student with email " + row.entity().getEmail() + " already exists");
+                } else {
+                    rows.add(row);
+                }
+            }
+            byEmail.keySet().removeAll(existing);
+
+            List<Long> ids = batchInsert(INSERT_STUDENT, "students", rows, (ps, student) -> {
+                ps.setString(2, student.getName());
+                ps.setString(3, student.getEmail());
+            });
+            for (int i = 0; i < rows.size(); i++) {
+                Student student = rows.get(i).entity();
+                eventPublisher.publishEvent(new StudentCreatedEvent(ids.get(i), student.getName(), student.getEmail()));
+            }
+            report.rowsImported(rows.size());
+        });
+    }
+
+    /**
+     * Insert each row in a transaction of its own, reporting rows whose email is taken by then as failed
+     */
+    private void insertStudentsOneByOne(Collection<PendingRow<Student>> rows, ImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        long nextId = idAllocator.reserve("students", rows.size());
+        for (PendingRow<Student> row : rows) {
+            long id = nextId++;
+            Student student = row.entity();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_STUDENT, id, student.getName(), student.getEmail());
+                    eventPublisher.publishEvent(new StudentCreatedEvent(id, student.getName(), student.getEmail()));
+                });
+                report.rowsImported(1);
+            } catch (DuplicateKeyException e) {
+                report.rowFailed(row.number(), "Student with email " + student.getEmail() + " already exists");
+            }
+        }
+    }
+
+    private void writeCourses(List<PendingRow<Course>> batch, ImportReport report) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = batchInsert(INSERT_COURSE, "courses", batch, (ps, course) -> {
+                ps.setString(2, course.getName());
+                ps.setString(3, course.getDescription());
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                Course course = batch.get(i).entity();
+                eventPublisher.publishEvent(new CourseCreatedEvent(ids.get(i), course.getName(), course.getDescription()));
+            }
+            report.rowsImported(batch.size());
+        });
+    }
+
+    /**
+     * Insert the rows under IDs reserved from the pooled generator, so no keys need to be read back
+     *
+     * @param setter sets every parameter after the leading ID
+     */
+    private <T> List<Long> batchInsert(String sql, String table, List<PendingRow<T>> rows,
+                                       ParameterSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        long firstId = idAllocator.reserve(table, rows.size());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, firstId + i);
+                setter.setValues(ps, rows.get(i).entity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return LongStream.range(firstId, firstId + rows.size()).boxed().toList();
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private record PendingRow<T>(long number, T entity) {
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(Map<String, String> record);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        void write(List<PendingRow<T>> batch, ImportReport report);
+    }
+
+    @FunctionalInterface
+    private interface ParameterSetter<T> {
+        void setValues(PreparedStatement ps, T entity) throws SQLException;
+    }
+}
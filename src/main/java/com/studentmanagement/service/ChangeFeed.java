@@ -0,0 +1,250 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.ChangeFeedProperties;
+import com.studentmanagement.dto.ChangeNotice;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import com.studentmanagement.event.WaitlistChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed of committed changes to students, courses and enrollments, sent to
+ * clients as server-sent events.
+ *
+ * Changes are numbered and kept in a ring buffer of the most recent
+ * {@code app.change-feed.buffer-size}, so a client that reconnects with the
+ * last sequence it saw receives what it missed. A client that is too far
+ * behind for that gets a {@code reset} event and should reload.
+ *
+ * Publishing never waits for clients: each one has a bounded queue drained
+ * by its own virtual thread, and a client whose queue fills up is sent a
+ * {@code dropped} event and disconnected, to resume from its last sequence.
+ */
+@Service
+public class ChangeFeed {
+
+    private final ChangeFeedProperties properties;
+    private final ChangeNotice[] buffer;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter dropped;
+
+    /**
+     * Sequence of the newest notice, guarded by this
+     */
+    private long lastSequence;
+
+    public ChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new ChangeNotice[properties.getBufferSize()];
+        Gauge.builder("change.feed.subscribers", subscribers, Set::size)
+                .description("Clients connected to the change feed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("change.feed.dropped")
+                .description("Change feed clients disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to changes touching any of the given courses or students, or to all changes if both are empty
+     *
+     * @param since last sequence the client has seen, or null for new changes only
+     */
+    public SseEmitter subscribe(Set<Long> courseIds, Set<Long> studentIds, Long since) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, courseIds, studentIds);
+        List<ChangeNotice> backlog = new ArrayList<>();
+        boolean reset = false;
+        synchronized (this) {
+            // Checked under the same lock as the add, so concurrent connections cannot pass it together
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                throw new IllegalStateException("Too many change feed clients; please try again later");
+            }
+            if (since != null) {
+                long oldest = Math.max(1, lastSequence - buffer.length + 1);
+                if (since < oldest - 1 || since > lastSequence) {
+                    reset = true;
+                } else {
+                    for (long sequence = since + 1; sequence <= lastSequence; sequence++) {
+                        ChangeNotice notice = buffer[slot(sequence)];
+                        if (subscriber.wants(notice)) {
+                            backlog.add(notice);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        // Sent before the emitter is returned, these are buffered and written by the request thread
+        try {
+            if (reset) {
+                emitter.send(SseEmitter.event().name("reset")
+                        .data(Map.of("message", "Changes since the given sequence are no longer available")));
+            }
+            for (ChangeNotice notice : backlog) {
+                send(emitter, notice);
+            }
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            throw new UncheckedIOException(e);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("change-feed").start(subscriber);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        publish("student.created", event.studentId(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentUpdated(StudentUpdatedEvent event) {
+        publish("student.updated", event.studentId(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        publish("student.deleted", event.studentId(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        publish("course.created", null, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseUpdated(CourseUpdatedEvent event) {
+        publish("course.updated", null, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        publish("course.deleted", null, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        publish(event.enrolled() ? "enrollment.added" : "enrollment.removed", event.studentId(), event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistChanged(WaitlistChangedEvent event) {
+        publish(event.waiting() ? "waitlist.joined" : "waitlist.left", event.studentId(), event.courseId());
+    }
+
+    private synchronized void publish(String type, Long studentId, Long courseId) {
+        ChangeNotice notice = new ChangeNotice(++lastSequence, type, studentId, courseId, Instant.now());
+        buffer[slot(notice.getSequence())] = notice;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(notice) && !subscriber.queue.offer(notice)) {
+                subscribers.remove(subscriber);
+                subscriber.overflowed = true;
+                dropped.increment();
+            }
+        }
+    }
+
+    private static void send(SseEmitter emitter, ChangeNotice notice) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(notice.getSequence()))
+                .data(notice, MediaType.APPLICATION_JSON));
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % buffer.length);
+    }
+
+    /**
+     * One connected client and the queue its thread sends from
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Set<Long> courseIds;
+        private final Set<Long> studentIds;
+        private final BlockingQueue<ChangeNotice> queue = new ArrayBlockingQueue<>(properties.getSubscriberQueueSize());
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Subscriber(SseEmitter emitter, Set<Long> courseIds, Set<Long> studentIds) {
+            this.emitter = emitter;
+            this.courseIds = Set.copyOf(courseIds);
+            this.studentIds = Set.copyOf(studentIds);
+        }
+
+        private boolean wants(ChangeNotice notice) {
+            return courseIds.isEmpty() && studentIds.isEmpty()
+                    || notice.getCourseId() != null && courseIds.contains(notice.getCourseId())
+                    || notice.getStudentId() != null && studentIds.contains(notice.getStudentId());
+        }
+
+        @Override
+        public void run() {
+            try {
+                long heartbeat = properties.getHeartbeatInterval().toMillis();
+                while (!closed) {
+                    ChangeNotice notice = queue.poll(heartbeat, TimeUnit.MILLISECONDS);
+                    if (overflowed) {
+                        emitter.send(SseEmitter.event().name("dropped")
+                                .data(Map.of("message", "Client fell behind; reconnect to resume")));
+                        emitter.complete();
+                        return;
+                    }
+                    if (notice != null) {
+                        send(emitter, notice);
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter completed under us; Spring completes it
+            } catch (InterruptedException e) {
+                // Closed while waiting for the next notice
+            } finally {
+                subscribers.remove(this);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.ReplicaReads;
+import com.studentmanagement.dto.VersionStamp;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.EnrollmentQueuedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import com.studentmanagement.event.WaitlistChangedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revisions of the HTML pages, for ETag and Last-Modified headers.
+ *
+ * A page's revision combines the version of the entity it shows with global
+ * change counters for everything else it renders: students, courses and
+ * enrollments (waitlists included). Counters are bumped once changes commit
+ * and live in memory, so every revision also carries the epoch at which the
+ * application became ready; a restart never reuses an old tag.
+ *
+ * Only changes made through this application instance bump the counters, so
+ * revisions are only valid with a single instance. Behind a load balancer, a
+ * change made through one instance would leave the others answering 304 with
+ * the old page. The enrollment and search indexes, dashboard counters, change
+ * feed and fragment cache are fed by the same in-process events and share
+ * that limit.
+ *
+ * With replica routing, a page that gets a revision is read from the primary,
+ * version stamp and body alike. A body read from a lagging replica would
+ * otherwise be stored by the browser under the current tag and revalidated
+ * as unchanged until the next change.
+ */
+@Service
+public class ChangeTracker {
+
+    /**
+     * Strong ETag and last modification time, in epoch milliseconds, of one page
+     */
+    public record Revision(String etag, long lastModified) {
+    }
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    private final Counter students = new Counter();
+    private final Counter courses = new Counter();
+    private final Counter enrollments = new Counter();
+    private volatile long epoch = System.currentTimeMillis();
+
+    public ChangeTracker(StudentRepository studentRepository, CourseRepository courseRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * Start a new epoch once startup runners have finished loading data
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        epoch = System.currentTimeMillis();
+    }
+
+    /**
+     * Revision of the student list, including course counts
+     */
+    public Revision studentList() {
+        ReplicaReads.usePrimaryForRequest();
+        return revision("students", null, students, enrollments);
+    }
+
+    /**
+     * Revision of the course list, including seat counts
+     */
+    public Revision courseList() {
+        ReplicaReads.usePrimaryForRequest();
+        return revision("courses", null, courses, enrollments);
+    }
+
+    /**
+     * Revision of a student's page with its courses, or empty if there is no such student
+     */
+    public Optional<Revision> student(Long id) {
+        ReplicaReads.usePrimaryForRequest();
+        return studentRepository.findVersionStampById(id)
+                .map(stamp -> revision("student-" + id, stamp, courses, enrollments));
+    }
+
+    /**
+     * Revision of a course's page with its roster and waitlist, or empty if there is no such course
+     */
+    public Optional<Revision> course(Long id) {
+        ReplicaReads.usePrimaryForRequest();
+        return courseRepository.findVersionStampById(id)
+                .map(stamp -> revision("course-" + id, stamp, students, enrollments));
+    }
+
+    /**
+     * Revision of a student's enrollment page, which lists every course with its free seats
+     */
+    public Optional<Revision> studentEnrollments(Long studentId) {
+        ReplicaReads.usePrimaryForRequest();
+        return studentRepository.findVersionStampById(studentId)
+                .map(stamp -> revision("enrollments-" + studentId, stamp, courses, enrollments));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        students.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentUpdated(StudentUpdatedEvent event) {
+        students.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        students.bump();
+        enrollments.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        courses.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseUpdated(CourseUpdatedEvent event) {
+        courses.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        courses.bump();
+        enrollments.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        enrollments.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentQueued(EnrollmentQueuedEvent event) {
+        enrollments.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistChanged(WaitlistChangedEvent event) {
+        enrollments.bump();
+    }
+
+    private Revision revision(String page, VersionStamp stamp, Counter... counters) {
+        long epoch = this.epoch;
+        StringBuilder etag = new StringBuilder("\"").append(page);
+        long lastModified = epoch;
+        if (stamp != null) {
+            etag.append("-v").append(stamp.getVersion());
+            Instant entityModified = stamp.getLastModified();
+            if (entityModified != null) {
+                lastModified = Math.max(lastModified, entityModified.toEpochMilli());
+            }
+        }
+        etag.append('-').append(Long.toString(epoch, 36));
+        for (Counter counter : counters) {
+            etag.append('-').append(counter.count.get());
+            lastModified = Math.max(lastModified, counter.changedAt);
+        }
+        return new Revision(etag.append('"').toString(), lastModified);
+    }
+
+    private static final class Counter {
+
+        private final AtomicLong count = new AtomicLong();
+        private volatile long changedAt;
+
+        void bump() {
+            changedAt = System.currentTimeMillis();
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.CacheConfig;
+import com.studentmanagement.config.ReplicaReads;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cached course ID lookups behind the enrollment pages.
+ * Entries are evicted once the change that affects them has committed, and
+ * otherwise expire after the configured TTL. A lookup that was loading while
+ * its entry was evicted may have read the data from before the change, so it
+ * does not leave its result in the cache. Neither does a lookup answered by a
+ * replica, which may not have the change yet.
+ */
+@Service
+public class CourseLookupService {
+
+    private static final String ALL_COURSES = "all";
+
+    private final CourseRepository courseRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final GuardedCache enrollments;
+    private final GuardedCache courseIds;
+
+    public CourseLookupService(CourseRepository courseRepository, EntityManagerFactory entityManagerFactory,
+                               CacheManager cacheManager) {
+        this.courseRepository = courseRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enrollments = new GuardedCache(cacheManager.getCache(CacheConfig.STUDENT_ENROLLMENTS));
+        this.courseIds = new GuardedCache(cacheManager.getCache(CacheConfig.COURSE_IDS));
+    }
+
+    /**
+     * Get the IDs of the courses a student is enrolled in
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> getEnrolledCourseIds(Long studentId) {
+        return enrollments.get(studentId, () -> Set.copyOf(courseRepository.findIdsByStudentId(studentId)));
+    }
+
+    /**
+     * Get the IDs of all courses in ascending order
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getCourseIds() {
+        return courseIds.get(ALL_COURSES, () -> List.copyOf(courseRepository.findAllIds()));
+    }
+
+    /**
+     * Seat counts are written with plain SQL, which Hibernate cannot see,
+     * so the course's second-level cache entry is dropped here as well
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        enrollments.evict(event.studentId());
+        entityManagerFactory.getCache().evict(Course.class, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        enrollments.evict(event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        courseIds.evict(ALL_COURSES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        courseIds.evict(ALL_COURSES);
+    }
+
+    /**
+     * A cache whose evictions bump a generation counter per stripe of keys. A loader puts its
+     * result first and checks the generation afterwards, so an eviction racing with the load
+     * either removes the entry itself or is seen by the loader, which then removes it.
+     */
+    private static final class GuardedCache {
+
+        private static final int STRIPES = 64;
+
+        private final Cache cache;
+        private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+        private GuardedCache(Cache cache) {
+            this.cache = cache;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T get(Object key, Supplier<T> loader) {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            int stripe = stripe(key);
+            long generation = generations.get(stripe);
+            T value = loader.get();
+            if (ReplicaReads.inCurrentTransaction()) {
+                return value;
+            }
+            cache.put(key, value);
+            if (generations.get(stripe) != generation) {
+                cache.evict(key);
+            }
+            return value;
+        }
+
+        private void evict(Object key) {
+            generations.incrementAndGet(stripe(key));
+            cache.evict(key);
+        }
+
+        private static int stripe(Object key) {
+            return Math.floorMod(key.hashCode(), STRIPES);
+        }
+    }
+}
@@ -1,44 +1,154 @@
 package com.studentmanagement.service;
 
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.KeysetPage;
 import com.studentmanagement.entity.Course;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
 import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Course operations
  */
 @Service
 @Transactional
+@Timed(value = "service.calls", histogram = true)
 public class CourseService {
 
+    private static final String UPDATE_IF_VERSION =
+            "UPDATE courses SET name = ?, description = ?, capacity = ?, version = version + 1, " +
+            "last_modified = CURRENT_TIMESTAMP WHERE id = ? AND version = ?";
+
     private final CourseRepository courseRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final EnrollmentService enrollmentService;
+    private final CourseLookupService courseLookupService;
+    private final EnrollmentIndex enrollmentIndex;
+    private final WriteBehindEnrollmentService writeBehindEnrollmentService;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, WaitlistRepository waitlistRepository,
+                         EnrollmentService enrollmentService, CourseLookupService courseLookupService,
+                         EnrollmentIndex enrollmentIndex, WriteBehindEnrollmentService writeBehindEnrollmentService,
+                         EntityManager entityManager, JdbcTemplate jdbcTemplate, Validator validator,
+                         ApplicationEventPublisher eventPublisher) {
         this.courseRepository = courseRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.enrollmentService = enrollmentService;
+        this.courseLookupService = courseLookupService;
+        this.enrollmentIndex = enrollmentIndex;
+        this.writeBehindEnrollmentService = writeBehindEnrollmentService;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Create a new course
      */
     public Course createCourse(Course course) {
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseCreatedEvent(savedCourse.getId(), savedCourse.getName(),
+                savedCourse.getDescription()));
+        return savedCourse;
     }
 
     /**
-     * Update an existing course
+     * Update an existing course, retried if a concurrent edit commits first
      */
+    @RetryOnConflict
     public Course updateCourse(Long id, Course course) {
         Course existingCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
         
         existingCourse.setName(course.getName());
         existingCourse.setDescription(course.getDescription());
+        existingCourse.setCapacity(course.getCapacity());
         
-        return courseRepository.save(existingCourse);
+        // Flush first so seat allocation sees the new capacity
+        Course savedCourse = courseRepository.saveAndFlush(existingCourse);
+        enrollmentService.promoteWaitlisted(id);
+        eventPublisher.publishEvent(new CourseUpdatedEvent(savedCourse.getId(), savedCourse.getName(),
+                savedCourse.getDescription()));
+        return savedCourse;
+    }
+
+    /**
+     * Update a course with a single UPDATE, provided it is still at the version the
+     * client last saw. A stale version is reported rather than retried, since the
+     * client's edit was based on data that has since changed.
+     */
+    public void updateCourse(Long id, long expectedVersion, Course course) {
+        validate(course);
+        int updated = jdbcTemplate.update(UPDATE_IF_VERSION, course.getName(), course.getDescription(),
+                course.getCapacity(), id, expectedVersion);
+        if (updated == 0) {
+            if (!courseRepository.existsById(id)) {
+                throw new IllegalArgumentException("Course not found with ID: " + id);
+            }
+            throw new OptimisticLockingFailureException(
+                    "Course was changed by someone else while you were editing; please review and try again");
+        }
+        // A raised capacity frees seats for the waitlist
+        enrollmentService.promoteWaitlisted(id);
+        evictAfterCommit(id);
+        eventPublisher.publishEvent(new CourseUpdatedEvent(id, course.getName(), course.getDescription()));
+    }
+
+    /**
+     * Apply the entity's constraints, which Hibernate would check on flush, to a
+     * course about to be written with plain SQL
+     */
+    private void validate(Course course) {
+        Set<ConstraintViolation<Course>> violations = validator.validate(course);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")), violations);
+        }
+    }
+
+    /**
+     * The plain UPDATE bypasses Hibernate, so drop the course's second-level cache
+     * entry once it commits rather than let the cache serve the old row
+     */
+    private void evictAfterCommit(Long id) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManager.getEntityManagerFactory().getCache().evict(Course.class, id);
+            }
+        });
     }
 
     /**
@@ -58,30 +168,113 @@ public class CourseService {
     }
 
     /**
-     * Get courses enrolled by a student
+     * Get one keyset page of course summaries ordered by ID.
+     * {@code after} pages forwards from a cursor, {@code before} pages backwards.
      */
     @Transactional(readOnly = true)
-    public List<Course> getCoursesByStudent(Long studentId) {
-        return courseRepository.findByStudentId(studentId);
+    public KeysetPage<CourseSummary> getCoursePage(Long after, Long before, int size, Sort.Direction direction) {
+        boolean backward = before != null;
+        Long cursor = backward ? before : after;
+        Limit limit = Limit.of(size + 1);
+
+        List<CourseSummary> rows;
+        if (direction.isAscending() != backward) {
+            rows = courseRepository.findSummariesAfter(cursor != null ? cursor : 0L, limit);
+        } else {
+            rows = courseRepository.findSummariesBefore(cursor != null ? cursor : Long.MAX_VALUE, limit);
+        }
+        return KeysetPage.of(rows, size, backward, cursor != null, CourseSummary::getId);
     }
 
     /**
-     * Get courses not enrolled by a student
+     * Get one keyset page of the courses a student is enrolled in, ordered by ID, including journaled changes
      */
     @Transactional(readOnly = true)
-    public List<Course> getCoursesNotEnrolledByStudent(Long studentId) {
-        return courseRepository.findNotEnrolledByStudent(studentId);
+    public KeysetPage<Course> getCoursePageByStudent(Long studentId, Long after, int size) {
+        long from = after != null ? after : 0L;
+        List<Long> ids;
+        if (enrollmentIndex.isReady()) {
+            ids = enrollmentIndex.getCourseIdsAfter(studentId, from, size + 1);
+        } else {
+            List<Long> enrolled = courseLookupService.getEnrolledCourseIds(studentId).stream().sorted().toList();
+            ids = idsAfter(enrolled, Set.of(), from, size + 1);
+        }
+        return pageWithPending(studentId, ids, true, after, size);
+    }
+
+    /**
+     * Get one keyset page of the courses a student is not enrolled in, ordered by ID, including journaled changes
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Course> getCoursePageNotEnrolledByStudent(Long studentId, Long after, int size) {
+        long from = after != null ? after : 0L;
+        List<Long> ids;
+        if (enrollmentIndex.isReady()) {
+            ids = enrollmentIndex.getCourseIdsNotEnrolledAfter(studentId, from, size + 1);
+        } else {
+            ids = idsAfter(courseLookupService.getCourseIds(), courseLookupService.getEnrolledCourseIds(studentId),
+                    from, size + 1);
+        }
+        return pageWithPending(studentId, ids, false, after, size);
     }
 
     /**
      * Delete course by ID
      */
+    @RetryOnConflict
     public void deleteCourse(Long id) {
         if (!courseRepository.existsById(id)) {
             throw new IllegalArgumentException("Course not found with ID: " + id);
         }
         
+        waitlistRepository.deleteByCourseId(id);
         courseRepository.deleteById(id);
+        eventPublisher.publishEvent(new CourseDeletedEvent(id));
+    }
+
+    /**
+     * Build a page from up to {@code size + 1} IDs read from the database, with the student's
+     * journaled changes applied. Removals can leave the page short while more rows follow,
+     * so the next cursor comes from the IDs read rather than from the page's length.
+     */
+    private KeysetPage<Course> pageWithPending(Long studentId, List<Long> ids, boolean enrolled, Long after,
+                                               int size) {
+        boolean more = ids.size() > size;
+        Long until = more ? ids.get(ids.size() - 1) : null;
+        List<Long> current = writeBehindEnrollmentService.withPending(studentId, ids, enrolled,
+                after != null ? after : 0L, until);
+        List<Long> items = current.size() > size ? current.subList(0, size) : current;
+        Long nextCursor = current.size() > size ? items.get(items.size() - 1) : until;
+        Long previousCursor = after != null && !items.isEmpty() ? items.get(0) : null;
+        return new KeysetPage<>(loadCourses(items), nextCursor, previousCursor, size);
+    }
+
+    /**
+     * Get up to {@code limit} of the ascending IDs that are greater than {@code after} and not excluded
+     */
+    private static List<Long> idsAfter(List<Long> ascendingIds, Set<Long> excluded, long after, int limit) {
+        int position = Collections.binarySearch(ascendingIds, after);
+        List<Long> ids = new ArrayList<>();
+        for (int i = position >= 0 ? position + 1 : -position - 1; i < ascendingIds.size() && ids.size() < limit; i++) {
+            if (!excluded.contains(ascendingIds.get(i))) {
+                ids.add(ascendingIds.get(i));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Load courses by ID through the second-level cache, querying only for the misses.
+     * IDs of courses deleted since they were cached are skipped. Follows the session's
+     * cache mode, so courses read from a replica are not put in the cache.
+     */
+    private List<Course> loadCourses(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Course.class)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -0,0 +1,56 @@
+package com.studentmanagement.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Record formats accepted by the bulk import and produced by the export
+ */
+public enum DataFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DataFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolve the format from its name, e.g. a {@code format} request parameter
+     */
+    public static DataFormat fromName(String name) {
+        for (DataFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name + " (expected csv or ndjson)");
+    }
+
+    /**
+     * Resolve the format from a request content type
+     */
+    public static DataFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            for (DataFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(requested)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                + " (expected text/csv or application/x-ndjson)");
+    }
+}
@@ -0,0 +1,429 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory enrollment index holding compressed bitmaps of student IDs per
+ * course and of course IDs per student, so that enrolled and not-enrolled
+ * lookups need no SQL.
+ *
+ * The index is built at startup, kept current by the domain events published
+ * once enrollment changes commit, and periodically verified against the
+ * database. Callers fall back to the repository queries while it is not
+ * {@link #isReady() ready}, including when an ID no longer fits in an int.
+ * Builds and checks read the primary in a single snapshot and never hold the
+ * lock while they query.
+ */
+@Service
+public class EnrollmentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentIndex.class);
+
+    private static final Duration CONFIRM_DELAY = Duration.ofSeconds(1);
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_STUDENT_IDS = "SELECT id FROM students";
+    private static final String SELECT_COURSE_IDS = "SELECT id FROM courses";
+    private static final String SELECT_ENROLLMENTS = "SELECT student_id, course_id FROM student_courses";
+    private static final String SELECT_STUDENT_CHECKSUM = "SELECT COUNT(*), COALESCE(SUM(id), 0) FROM students";
+    private static final String SELECT_COURSE_CHECKSUMS =
+            "SELECT c.id, COUNT(e.student_id), COALESCE(SUM(e.student_id), 0) " +
+            "FROM courses c LEFT JOIN student_courses e ON e.course_id = c.id GROUP BY c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuilding = new Object();
+    private State state = new State();
+
+    /**
+     * Changes applied while a rebuild reads the database, replayed onto the new index; null otherwise
+     */
+    private List<Consumer<State>> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    public EnrollmentIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // A plain JDBC transaction, as the JPA one cannot set the isolation level once connections
+        // are acquired lazily; read-write so that the reads go to the primary, which the events follow
+        this.snapshotTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Whether the index has been built and can answer lookups
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the IDs of the courses a student is enrolled in, ascending
+     */
+    public List<Long> getCourseIds(Long studentId) {
+        return read(index -> toIds(lookup(index.coursesByStudent, studentId)));
+    }
+
+    /**
+     * Get up to {@code limit} IDs greater than {@code after} of the courses a student is enrolled in, ascending
+     */
+    public List<Long> getCourseIdsAfter(Long studentId, long after, int limit) {
+        return read(index -> idsAfter(lookup(index.coursesByStudent, studentId), null, after, limit));
+    }
+
+    /**
+     * Get up to {@code limit} IDs greater than {@code after} of the courses a student is not enrolled in,
+     * ascending. Walks all courses from the cursor and skips the enrolled ones rather than building
+     * the difference of the two bitmaps.
+     */
+    public List<Long> getCourseIdsNotEnrolledAfter(Long studentId, long after, int limit) {
+        return read(index -> idsAfter(index.courses, lookup(index.coursesByStudent, studentId), after, limit));
+    }
+
+    /**
+     * Get the IDs of the students enrolled in a course, ascending
+     */
+    public List<Long> getStudentIds(Long courseId) {
+        return read(index -> toIds(lookup(index.studentsByCourse, courseId)));
+    }
+
+    /**
+     * Get the IDs of the students not enrolled in a course, ascending
+     */
+    public List<Long> getStudentIdsNotEnrolled(Long courseId) {
+        return read(index -> toIds(without(index.students, lookup(index.studentsByCourse, courseId))));
+    }
+
+    /**
+     * Rebuild the whole index from the database.
+     * The new index is built without holding the lock; changes that arrive meanwhile are
+     * applied to both indexes and replayed onto the new one before it replaces the old.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuilding) {
+            write(index -> changesDuringRebuild = new ArrayList<>());
+            State built;
+            try {
+                built = snapshotTransaction.execute(status -> load());
+            } catch (ArithmeticException e) {
+                write(index -> {
+                    changesDuringRebuild = null;
+                    disable();
+                });
+                return;
+            }
+            write(index -> {
+                List<Consumer<State>> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                changes.forEach(change -> change.accept(built));
+                state = built;
+                ready = true;
+            });
+            if (ready) {
+                log.info("Built enrollment index: {} students, {} courses, {} enrollments",
+                        built.students.getCardinality(), built.courses.getCardinality(), built.countEnrollments());
+            }
+        }
+    }
+
+    /**
+     * Compare the number and the ID sum of each course's students, and of all students, against
+     * the database, and rebuild the index on any difference that is still there when checked again
+     */
+    @Scheduled(initialDelayString = "${app.enrollment-index.verify-interval:PT10M}",
+               fixedDelayString = "${app.enrollment-index.verify-interval:PT10M}")
+    public void verify() {
+        Map<String, Checksum> drift = findDrift();
+        if (ready && !drift.isEmpty()) {
+            // A change can commit before the database is read and reach the index only after it is; such
+            // a difference is gone or different a moment later, while real drift stays the same
+            try {
+                Thread.sleep(CONFIRM_DELAY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Map<String, Checksum> again = findDrift();
+            drift.keySet().removeIf(entry -> !drift.get(entry).equals(again.get(entry)));
+        }
+
+        if (!ready || !drift.isEmpty()) {
+            log.warn("Enrollment index out of step with the database ({}), rebuilding",
+                    drift.entrySet().stream()
+                            .limit(5)
+                            .map(entry -> entry.getKey() + " off by " + entry.getValue())
+                            .collect(Collectors.joining(", ")));
+            rebuild();
+        }
+    }
+
+    /**
+     * Get how far each entry of the index is from the database. Entries that changed while the
+     * database was read cannot be compared and are left out.
+     */
+    private Map<String, Checksum> findDrift() {
+        Checksums before = read(State::checksums);
+        Checksums database = snapshotTransaction.execute(status -> {
+            Checksum students = jdbcTemplate.queryForObject(SELECT_STUDENT_CHECKSUM,
+                    (rs, rowNum) -> new Checksum(rs.getLong(1), rs.getLong(2)));
+            Map<Long, Checksum> courses = new HashMap<>();
+            jdbcTemplate.query(SELECT_COURSE_CHECKSUMS,
+                    rs -> { courses.put(rs.getLong(1), new Checksum(rs.getLong(2), rs.getLong(3))); });
+            return new Checksums(students, courses);
+        });
+        Checksums after = read(State::checksums);
+
+        Map<String, Checksum> drift = new LinkedHashMap<>();
+        if (before.students().equals(after.students()) && !before.students().equals(database.students())) {
+            drift.put("students", before.students().minus(database.students()));
+        }
+        Set<Long> courseIds = new TreeSet<>(database.courses().keySet());
+        courseIds.addAll(before.courses().keySet());
+        Checksum absent = new Checksum(-1, 0);
+        for (Long courseId : courseIds) {
+            Checksum indexed = before.courses().getOrDefault(courseId, absent);
+            Checksum stored = database.courses().getOrDefault(courseId, absent);
+            if (indexed.equals(after.courses().getOrDefault(courseId, absent)) && !indexed.equals(stored)) {
+                drift.put("course " + courseId, indexed.minus(stored));
+            }
+        }
+        return drift;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        update(index -> index.students.add(toInt(event.studentId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        update(index -> {
+            int studentId = toInt(event.studentId());
+            index.students.remove(studentId);
+            RoaringBitmap enrolled = index.coursesByStudent.remove(studentId);
+            if (enrolled != null) {
+                enrolled.forEach((int courseId) -> removeFrom(index.studentsByCourse, courseId, studentId));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        update(index -> index.courses.add(toInt(event.courseId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        update(index -> {
+            int courseId = toInt(event.courseId());
+            index.courses.remove(courseId);
+            RoaringBitmap enrolled = index.studentsByCourse.remove(courseId);
+            if (enrolled != null) {
+                enrolled.forEach((int studentId) -> removeFrom(index.coursesByStudent, studentId, courseId));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        update(index -> {
+            int studentId = toInt(event.studentId());
+            int courseId = toInt(event.courseId());
+            if (event.enrolled()) {
+                index.enroll(studentId, courseId);
+            } else {
+                removeFrom(index.studentsByCourse, courseId, studentId);
+                removeFrom(index.coursesByStudent, studentId, courseId);
+            }
+        });
+    }
+
+    private State load() {
+        State built = new State();
+        jdbcTemplate.query(SELECT_STUDENT_IDS, rs -> { built.students.add(toInt(rs.getLong(1))); });
+        jdbcTemplate.query(SELECT_COURSE_IDS, rs -> { built.courses.add(toInt(rs.getLong(1))); });
+        jdbcTemplate.query(SELECT_ENROLLMENTS,
+                rs -> { built.enroll(toInt(rs.getLong(1)), toInt(rs.getLong(2))); });
+        built.students.runOptimize();
+        built.courses.runOptimize();
+        built.studentsByCourse.values().forEach(RoaringBitmap::runOptimize);
+        built.coursesByStudent.values().forEach(RoaringBitmap::runOptimize);
+        return built;
+    }
+
+    private <T> T read(Function<State, T> lookup) {
+        lock.readLock().lock();
+        try {
+            return lookup.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+        } catch (ArithmeticException e) {
+            disable();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(Consumer<State> change) {
+        write(index -> {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            change.accept(index);
+        });
+    }
+
+    private void disable() {
+        if (ready) {
+            log.warn("Entity IDs exceed the int range, enrollment lookups fall back to SQL");
+        }
+        ready = false;
+        state = new State();
+    }
+
+    private static void removeFrom(Map<Integer, RoaringBitmap> index, int key, int value) {
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(value);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Get an entry of the index; IDs beyond the int range are never in it
+     */
+    private static RoaringBitmap lookup(Map<Integer, RoaringBitmap> index, Long id) {
+        return id > Integer.MAX_VALUE ? null : index.get(id.intValue());
+    }
+
+    private static RoaringBitmap without(RoaringBitmap all, RoaringBitmap excluded) {
+        return excluded == null ? all : RoaringBitmap.andNot(all, excluded);
+    }
+
+    private static List<Long> toIds(RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private static List<Long> idsAfter(RoaringBitmap bitmap, RoaringBitmap excluded, long after, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (bitmap == null || after >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        PeekableIntIterator iterator = bitmap.getIntIterator();
+        iterator.advanceIfNeeded((int) Math.max(after + 1, 0));
+        while (iterator.hasNext() && ids.size() < limit) {
+            int id = iterator.next();
+            if (excluded == null || !excluded.contains(id)) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+
+    private static Checksum checksum(RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return new Checksum(0, 0);
+        }
+        long sum = 0;
+        IntIterator ids = bitmap.getIntIterator();
+        while (ids.hasNext()) {
+            sum += ids.next();
+        }
+        return new Checksum(bitmap.getLongCardinality(), sum);
+    }
+
+    private static int toInt(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    /**
+     * The bitmaps of one build of the index
+     */
+    private static final class State {
+
+        private final RoaringBitmap students = new RoaringBitmap();
+        private final RoaringBitmap courses = new RoaringBitmap();
+        private final Map<Integer, RoaringBitmap> studentsByCourse = new HashMap<>();
+        private final Map<Integer, RoaringBitmap> coursesByStudent = new HashMap<>();
+
+        private void enroll(int studentId, int courseId) {
+            studentsByCourse.computeIfAbsent(courseId, id -> new RoaringBitmap()).add(studentId);
+            coursesByStudent.computeIfAbsent(studentId, id -> new RoaringBitmap()).add(courseId);
+        }
+
+        private long countEnrollments() {
+            long count = 0;
+            for (RoaringBitmap enrolled : studentsByCourse.values()) {
+                count += enrolled.getLongCardinality();
+            }
+            return count;
+        }
+
+        private Checksums checksums() {
+            Map<Long, Checksum> byCourse = new HashMap<>();
+            courses.forEach((int courseId) -> byCourse.put((long) courseId, checksum(studentsByCourse.get(courseId))));
+            return new Checksums(checksum(students), byCourse);
+        }
+    }
+
+    private record Checksum(long count, long idSum) {
+
+        private Checksum minus(Checksum other) {
+            return new Checksum(count - other.count, idSum - other.idSum);
+        }
+    }
+
+    private record Checksums(Checksum students, Map<Long, Checksum> courses) {
+    }
+}
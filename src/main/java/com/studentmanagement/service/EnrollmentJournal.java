@@ -0,0 +1,184 @@
+package com.studentmanagement.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of enrollment changes in two memory-mapped files.
+ * Each append is forced to disk before it returns.
+ *
+ * One file is active at a time. {@link #rewrite} compacts the journal by
+ * writing the given entries to the other file and only then stamping that
+ * file with the next generation, so a crash part way through leaves the
+ * previous file in charge. Records carry their file's generation and a
+ * checksum, and reading stops at the first record that fails either check,
+ * which drops a torn last append as well as leftovers of older generations.
+ *
+ * Not thread safe; callers serialize access.
+ */
+final class EnrollmentJournal implements Closeable {
+
+    private static final int MAGIC = 0x454A524E;
+
+    /**
+     * Magic, generation, checksum
+     */
+    private static final int HEADER_SIZE = 4 + 8 + 4;
+
+    /**
+     * Generation, student ID, course ID, enrolled flag, checksum
+     */
+    private static final int RECORD_SIZE = 8 + 8 + 8 + 1 + 4;
+
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] files = new MappedByteBuffer[2];
+    private final List<Entry> recovered;
+    private int active;
+    private long generation;
+    private int position;
+
+    EnrollmentJournal(Path directory, int size) throws IOException {
+        if (size < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal size must be at least " + (HEADER_SIZE + RECORD_SIZE) + " bytes");
+        }
+        Files.createDirectories(directory);
+        for (int i = 0; i < 2; i++) {
+            channels[i] = FileChannel.open(directory.resolve("enrollments-" + i + ".journal"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            files[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        long first = readGeneration(files[0]);
+        long second = readGeneration(files[1]);
+        if (first == 0 && second == 0) {
+            active = 0;
+            generation = 1;
+            writeHeader(files[0], generation);
+            position = HEADER_SIZE;
+            recovered = List.of();
+        } else {
+            active = first >= second ? 0 : 1;
+            generation = Math.max(first, second);
+            recovered = readRecords(files[active], generation);
+            position = HEADER_SIZE + recovered.size() * RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Entries found in the journal when it was opened, in the order they were appended
+     */
+    List<Entry> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Append an entry and force it to disk
+     *
+     * @return false if the active file has no room left
+     */
+    boolean append(Entry entry) {
+        MappedByteBuffer file = files[active];
+        if (position + RECORD_SIZE > file.capacity()) {
+            return false;
+        }
+        writeRecord(file, position, generation, entry);
+        file.force(position, RECORD_SIZE);
+        position += RECORD_SIZE;
+        return true;
+    }
+
+    /**
+     * Replace the journal's contents with the given entries
+     *
+     * @return false if they do not fit, in which case the journal is left as it was
+     */
+    boolean rewrite(Collection<Entry> entries) {
+        int standby = 1 - active;
+        MappedByteBuffer file = files[standby];
+        if (HEADER_SIZE + (long) entries.size() * RECORD_SIZE > file.capacity()) {
+            return false;
+        }
+        long next = generation + 1;
+        int offset = HEADER_SIZE;
+        for (Entry entry : entries) {
+            writeRecord(file, offset, next, entry);
+            offset += RECORD_SIZE;
+        }
+        file.force(HEADER_SIZE, offset - HEADER_SIZE);
+        writeHeader(file, next);
+        active = standby;
+        generation = next;
+        position = offset;
+        return true;
+    }
+
+    /**
+     * Number of entries in the active file
+     */
+    int size() {
+        return (position - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    private static long readGeneration(MappedByteBuffer file) {
+        if (file.getInt(0) != MAGIC) {
+            return 0;
+        }
+        long generation = file.getLong(4);
+        return checksum(file, 0, 12) == file.getInt(12) ? generation : 0;
+    }
+
+    private static void writeHeader(MappedByteBuffer file, long generation) {
+        file.putInt(0, MAGIC);
+        file.putLong(4, generation);
+        file.putInt(12, checksum(file, 0, 12));
+        file.force(0, HEADER_SIZE);
+    }
+
+    private static List<Entry> readRecords(MappedByteBuffer file, long generation) {
+        List<Entry> entries = new ArrayList<>();
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= file.capacity(); offset += RECORD_SIZE) {
+            if (file.getLong(offset) != generation
+                    || checksum(file, offset, RECORD_SIZE - 4) != file.getInt(offset + RECORD_SIZE - 4)) {
+                break;
+            }
+            entries.add(new Entry(file.getLong(offset + 8), file.getLong(offset + 16), file.get(offset + 24) == 1));
+        }
+        return entries;
+    }
+
+    private static void writeRecord(MappedByteBuffer file, int offset, long generation, Entry entry) {
+        file.putLong(offset, generation);
+        file.putLong(offset + 8, entry.studentId());
+        file.putLong(offset + 16, entry.courseId());
+        file.put(offset + 24, (byte) (entry.enrolled() ? 1 : 0));
+        file.putInt(offset + RECORD_SIZE - 4, checksum(file, offset, RECORD_SIZE - 4));
+    }
+
+    private static int checksum(MappedByteBuffer file, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(file.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * One requested change: enroll or unenroll a student in a course
+     */
+    record Entry(long studentId, long courseId, boolean enrolled) {
+    }
+}
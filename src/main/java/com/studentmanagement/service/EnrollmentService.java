@@ -0,0 +1,496 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.BulkEnrollmentResult;
+import com.studentmanagement.dto.EnrollmentOutcome;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.WaitlistChangedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import com.studentmanagement.repository.WaitlistRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Service for enrollment operations.
+ * Enrollments are written as rows of the student_courses join table in
+ * JDBC batches, without loading either side's collection.
+ *
+ * Seats are taken with a conditional UPDATE on courses.enrolled_count, so
+ * concurrent requests can never overbook a course. Requests that find the
+ * course full go to its waitlist, which is promoted first come first served
+ * whenever seats are released. Course rows are always locked in ascending
+ * ID order, and before any enrollment or waitlist row, to avoid deadlocks
+ * between requests. Seats are released only for rows a request actually
+ * deleted, and an insert that loses a race to a concurrent request is
+ * retried, so a repeated submission changes a pair only once.
+ */
+@Service
+@Transactional
+public class EnrollmentService {
+
+    private static final String INSERT_ENROLLMENT = "INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)";
+    private static final String DELETE_ENROLLMENT = "DELETE FROM student_courses WHERE student_id = ? AND course_id = ?";
+    private static final String INSERT_WAITLIST = "INSERT INTO course_waitlist (student_id, course_id, created_at) VALUES (?, ?, ?)";
+    private static final String DELETE_WAITLIST = "DELETE FROM course_waitlist WHERE student_id = ? AND course_id = ?";
+    private static final String SELECT_WAITLISTED_COURSES = "SELECT course_id FROM course_waitlist WHERE student_id = ?";
+
+    private static final String TAKE_SEATS = "UPDATE courses SET enrolled_count = enrolled_count + ? " +
+            "WHERE id = ? AND (capacity IS NULL OR enrolled_count + ? <= capacity)";
+    private static final String LOCK_FREE_SEATS = "SELECT capacity - enrolled_count FROM courses WHERE id = ? FOR UPDATE";
+    private static final String ADJUST_SEATS = "UPDATE courses SET enrolled_count = enrolled_count + ? WHERE id = ?";
+    private static final String LOCK_COURSE = "SELECT id FROM courses WHERE id = ? FOR UPDATE";
+
+    /**
+     * Upper bound on IN-list sizes sent to the database
+     */
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EnrollmentService(StudentRepository studentRepository, CourseRepository courseRepository,
+                             WaitlistRepository waitlistRepository, JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Enroll a student in a course, or waitlist them if the course is full
+     */
+    @RetryOnConflict
+    public EnrollmentOutcome enroll(Long studentId, Long courseId) {
+        BulkEnrollmentResult result = enrollStudents(courseId, List.of(studentId));
+        if (!result.getUnknown().isEmpty()) {
+            throw new IllegalArgumentException("Student not found");
+        }
+        if (!result.getChanged().isEmpty()) {
+            return EnrollmentOutcome.ENROLLED;
+        }
+        return result.getWaitlisted().isEmpty() ? EnrollmentOutcome.ALREADY_ENROLLED : EnrollmentOutcome.WAITLISTED;
+    }
+
+    /**
+     * Unenroll a student from a course, or take them off its waitlist
+     */
+    @RetryOnConflict
+    public EnrollmentOutcome unenroll(Long studentId, Long courseId) {
+        BulkEnrollmentResult result = unenrollStudents(courseId, List.of(studentId));
+        if (!result.getUnknown().isEmpty()) {
+            throw new IllegalArgumentException("Student not found");
+        }
+        if (!result.getChanged().isEmpty()) {
+            return EnrollmentOutcome.UNENROLLED;
+        }
+        return result.getWaitlisted().isEmpty() ? EnrollmentOutcome.NOT_ENROLLED : EnrollmentOutcome.LEFT_WAITLIST;
+    }
+
+    /**
+     * Enroll many students in one course, skipping those already enrolled.
+     * Students beyond the course's free seats are waitlisted in request order.
+     */
+    @RetryOnConflict
+    public BulkEnrollmentResult enrollStudents(Long courseId, Collection<Long> studentIds) {
+        requireCourse(courseId);
+        return enroll(studentIds, studentsOf(courseId));
+    }
+
+    /**
+     * Unenroll many students from one course, skipping those not enrolled
+     */
+    @RetryOnConflict
+    public BulkEnrollmentResult unenrollStudents(Long courseId, Collection<Long> studentIds) {
+        requireCourse(courseId);
+        return unenroll(studentIds, studentsOf(courseId));
+    }
+
+    /**
+     * Enroll one student in many courses, skipping those already enrolled.
+     * Full courses put the student on their waitlist.
+     */
+    @RetryOnConflict
+    public BulkEnrollmentResult enrollInCourses(Long studentId, Collection<Long> courseIds) {
+        requireStudent(studentId);
+        return enroll(courseIds, coursesOf(studentId));
+    }
+
+    /**
+     * Unenroll one student from many courses, skipping those not enrolled
+     */
+    @RetryOnConflict
+    public BulkEnrollmentResult unenrollFromCourses(Long studentId, Collection<Long> courseIds) {
+        requireStudent(studentId);
+        return unenroll(courseIds, coursesOf(studentId));
+    }
+
+    /**
+     * Unenroll a student from every course and waitlist, releasing their seats.
+     * The courses are locked and the waitlist left first, so no promotion can seat the
+     * student after their enrollments were read.
+     */
+    public void withdrawStudent(Long studentId) {
+        Set<Long> courseIds = new TreeSet<>(courseRepository.findIdsByStudentId(studentId));
+        courseIds.addAll(jdbcTemplate.queryForList(SELECT_WAITLISTED_COURSES, Long.class, studentId));
+        courseIds.forEach(courseId -> jdbcTemplate.queryForList(LOCK_COURSE, Long.class, courseId));
+        waitlistRepository.deleteByStudentId(studentId);
+        unenroll(courseRepository.findIdsByStudentId(studentId), coursesOf(studentId));
+    }
+
+    /**
+     * Give free seats of a course to its waitlisted students, first come first served.
+     * The course is locked before the waitlist is read, as leaving the waitlist locks it too.
+     */
+    public void promoteWaitlisted(Long courseId) {
+        jdbcTemplate.queryForList(LOCK_COURSE, Long.class, courseId);
+        promoteLocked(courseId);
+    }
+
+    /**
+     * Promote from the waitlist of a course the caller has already locked.
+     * Only students whose waitlist row this call deleted are seated: a row can still be gone
+     * by then, since a student's deletion does not lock their waitlisted courses, and a
+     * repeatable-read snapshot may predate the lock. Seats left unused are given back.
+     */
+    private void promoteLocked(Long courseId) {
+        Side side = studentsOf(courseId);
+        // Rows found already deleted, which an older snapshot keeps returning
+        Set<Long> gone = new HashSet<>();
+        while (true) {
+            List<Long> waiting = waitlistRepository
+                    .findStudentIdsByCourseId(courseId, Limit.of(IN_CLAUSE_CHUNK + gone.size())).stream()
+                    .filter(studentId -> !gone.contains(studentId))
+                    .toList();
+            if (waiting.isEmpty()) {
+                return;
+            }
+            int granted = allocateSeats(courseId, waiting.size());
+            List<Long> candidates = waiting.subList(0, granted);
+            Set<Long> seated = new HashSet<>(deleted(DELETE_WAITLIST, candidates, side));
+            candidates.stream().filter(studentId -> !seated.contains(studentId)).forEach(gone::add);
+            List<Object[]> promoted = candidates.stream()
+                    .filter(seated::contains)
+                    .map(side::pairOf)
+                    .toList();
+            int unused = granted - promoted.size();
+            if (unused > 0) {
+                jdbcTemplate.update(ADJUST_SEATS, -unused, courseId);
+            }
+            insert(INSERT_ENROLLMENT, promoted);
+            publish(promoted, true);
+            if (granted < waiting.size() && unused == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get a student's position in a course's waitlist, starting at 1, or 0 if not waitlisted
+     */
+    @Transactional(readOnly = true)
+    public long getWaitlistPosition(Long studentId, Long courseId) {
+        return waitlistRepository.findPosition(courseId, studentId);
+    }
+
+    /**
+     * Count students waiting for a seat in a course
+     */
+    @Transactional(readOnly = true)
+    public long getWaitlistCount(Long courseId) {
+        return waitlistRepository.countByCourseId(courseId);
+    }
+
+    private BulkEnrollmentResult enroll(Collection<Long> ids, Side side) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        Set<Long> existing = inChunks(requested, side::existing);
+        Set<Long> enrolled = inChunks(existing, side::enrolled);
+
+        List<Long> skipped = new ArrayList<>();
+        List<Long> unknown = new ArrayList<>();
+        Map<Long, List<Long>> candidatesByCourse = new TreeMap<>();
+        for (Long id : requested) {
+            if (!existing.contains(id)) {
+                unknown.add(id);
+            } else if (enrolled.contains(id)) {
+                skipped.add(id);
+            } else {
+                candidatesByCourse.computeIfAbsent(side.courseIdOf(id), courseId -> new ArrayList<>()).add(id);
+            }
+        }
+
+        List<Long> changed = new ArrayList<>();
+        List<Long> waitlisted = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entry : candidatesByCourse.entrySet()) {
+            List<Long> candidates = entry.getValue();
+            int granted = allocateSeats(entry.getKey(), candidates.size());
+            changed.addAll(candidates.subList(0, granted));
+            waitlisted.addAll(candidates.subList(granted, candidates.size()));
+        }
+        // A concurrent promotion may have seated some of these since they were checked. It held the
+        // course row that allocating seats just locked, so this second look is final
+        Set<Long> seatedMeanwhile = inChunks(waitlisted, side::enrolled);
+        if (!seatedMeanwhile.isEmpty()) {
+            waitlisted.removeAll(seatedMeanwhile);
+            skipped.addAll(seatedMeanwhile);
+        }
+
+        Set<Long> alreadyWaitlisted = new HashSet<>(inChunks(changed, side::waitlisted));
+        List<Object[]> seated = changed.stream().map(side::pairOf).toList();
+        List<Object[]> leavingWaitlist = changed.stream().filter(alreadyWaitlisted::contains).map(side::pairOf).toList();
+        alreadyWaitlisted.addAll(inChunks(waitlisted, side::waitlisted));
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> joiningWaitlist = waitlisted.stream()
+                .filter(id -> !alreadyWaitlisted.contains(id))
+                .map(id -> append(side.pairOf(id), now))
+                .toList();
+
+        insert(INSERT_ENROLLMENT, seated);
+        batchUpdate(DELETE_WAITLIST, leavingWaitlist);
+        insert(INSERT_WAITLIST, joiningWaitlist);
+        publish(seated, true);
+        publishWaitlist(joiningWaitlist, true);
+        return new BulkEnrollmentResult(requested.size(), changed, waitlisted, skipped, unknown);
+    }
+
+    private BulkEnrollmentResult unenroll(Collection<Long> ids, Side side) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        Set<Long> existing = inChunks(requested, side::existing);
+        Set<Long> enrolled = inChunks(existing, side::enrolled);
+        Set<Long> onWaitlist = inChunks(existing.stream().filter(id -> !enrolled.contains(id)).toList(), side::waitlisted);
+
+        List<Long> unseating = new ArrayList<>();
+        List<Long> leaving = new ArrayList<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long id : requested) {
+            if (!existing.contains(id)) {
+                unknown.add(id);
+            } else if (enrolled.contains(id)) {
+                unseating.add(id);
+            } else if (onWaitlist.contains(id)) {
+                leaving.add(id);
+            }
+        }
+
+        // Lock the courses before their rows, as enrolling does. Rows a concurrent request deleted
+        // since they were read then count as not enrolled, so their seats are released only once
+        Set<Long> courseIds = new TreeSet<>();
+        unseating.forEach(id -> courseIds.add(side.courseIdOf(id)));
+        leaving.forEach(id -> courseIds.add(side.courseIdOf(id)));
+        courseIds.forEach(courseId -> jdbcTemplate.queryForList(LOCK_COURSE, Long.class, courseId));
+
+        List<Long> changed = deleted(DELETE_ENROLLMENT, unseating, side);
+        List<Long> waitlisted = deleted(DELETE_WAITLIST, leaving, side);
+        Set<Long> removed = new HashSet<>(changed);
+        removed.addAll(waitlisted);
+        List<Long> skipped = requested.stream()
+                .filter(id -> existing.contains(id) && !removed.contains(id))
+                .toList();
+        publish(changed.stream().map(side::pairOf).toList(), false);
+        publishWaitlist(waitlisted.stream().map(side::pairOf).toList(), false);
+
+        Map<Long, Integer> releasedByCourse = new TreeMap<>();
+        changed.forEach(id -> releasedByCourse.merge(side.courseIdOf(id), 1, Integer::sum));
+        releasedByCourse.forEach((courseId, released) -> {
+            jdbcTemplate.update(ADJUST_SEATS, -released, courseId);
+            promoteLocked(courseId);
+        });
+        return new BulkEnrollmentResult(requested.size(), changed, waitlisted, skipped, unknown);
+    }
+
+    /**
+     * Take up to {@code requested} seats of a course.
+     * The common case is a single conditional UPDATE; only when that fails is
+     * the course row locked to hand out whatever seats remain.
+     *
+     * @return the number of seats taken
+     */
+    private int allocateSeats(Long courseId, int requested) {
+        if (jdbcTemplate.update(TAKE_SEATS, requested, courseId, requested) == 1) {
+            return requested;
+        }
+        Integer free = jdbcTemplate.queryForObject(LOCK_FREE_SEATS, Integer.class, courseId);
+        int granted = free == null ? 0 : Math.max(0, Math.min(requested, free));
+        if (granted > 0) {
+            jdbcTemplate.update(ADJUST_SEATS, granted, courseId);
+        }
+        return granted;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * Insert enrollment or waitlist rows. A row that already exists was written by a concurrent
+     * request after this one checked for it; the retry sees it and skips the pair.
+     */
+    private void insert(String sql, List<Object[]> rows) {
+        try {
+            batchUpdate(sql, rows);
+        } catch (DuplicateKeyException e) {
+            throw new OptimisticLockingFailureException("Enrollment changed concurrently", e);
+        }
+    }
+
+    /**
+     * Delete the rows of the given IDs
+     *
+     * @return the IDs whose row was actually deleted
+     */
+    private List<Long> deleted(String sql, List<Long> ids, Side side) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, ids.stream().map(side::pairOf).toList());
+        List<Long> deleted = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (counts[i] > 0) {
+                deleted.add(ids.get(i));
+            }
+        }
+        return deleted;
+    }
+
+    private void publish(List<Object[]> pairs, boolean enrolled) {
+        for (Object[] pair : pairs) {
+            eventPublisher.publishEvent(new EnrollmentChangedEvent((Long) pair[0], (Long) pair[1], enrolled));
+        }
+    }
+
+    private void publishWaitlist(List<Object[]> pairs, boolean waiting) {
+        for (Object[] pair : pairs) {
+            eventPublisher.publishEvent(new WaitlistChangedEvent((Long) pair[0], (Long) pair[1], waiting));
+        }
+    }
+
+    private static Object[] append(Object[] pair, Object value) {
+        return new Object[] {pair[0], pair[1], value};
+    }
+
+    private static Set<Long> inChunks(Collection<Long> ids, Function<Collection<Long>, Set<Long>> lookup) {
+        List<Long> list = new ArrayList<>(ids);
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_CHUNK) {
+            result.addAll(lookup.apply(list.subList(i, Math.min(i + IN_CLAUSE_CHUNK, list.size()))));
+        }
+        return result;
+    }
+
+    /**
+     * Student IDs requested against one course
+     */
+    private Side studentsOf(Long courseId) {
+        return new Side() {
+            @Override
+            public Set<Long> existing(Collection<Long> ids) {
+                return studentRepository.findExistingIds(ids);
+            }
+
+            @Override
+            public Set<Long> enrolled(Collection<Long> ids) {
+                return studentRepository.findIdsEnrolledInCourse(courseId, ids);
+            }
+
+            @Override
+            public Set<Long> waitlisted(Collection<Long> ids) {
+                return waitlistRepository.findWaitlistedStudentIds(courseId, ids);
+            }
+
+            @Override
+            public Long courseIdOf(Long id) {
+                return courseId;
+            }
+
+            @Override
+            public Object[] pairOf(Long id) {
+                return new Object[] {id, courseId};
+            }
+        };
+    }
+
+    /**
+     * Course IDs requested for one student
+     */
+    private Side coursesOf(Long studentId) {
+        return new Side() {
+            @Override
+            public Set<Long> existing(Collection<Long> ids) {
+                return courseRepository.findExistingIds(ids);
+            }
+
+            @Override
+            public Set<Long> enrolled(Collection<Long> ids) {
+                return courseRepository.findIdsEnrolledByStudent(studentId, ids);
+            }
+
+            @Override
+            public Set<Long> waitlisted(Collection<Long> ids) {
+                return waitlistRepository.findWaitlistedCourseIds(studentId, ids);
+            }
+
+            @Override
+            public Long courseIdOf(Long id) {
+                return id;
+            }
+
+            @Override
+            public Object[] pairOf(Long id) {
+                return new Object[] {studentId, id};
+            }
+        };
+    }
+
+    private void requireStudent(Long studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found");
+        }
+    }
+
+    private void requireCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found");
+        }
+    }
+
+    /**
+     * The "many" side of a bulk request: how its IDs are looked up and
+     * turned into (student ID, course ID) pairs
+     */
+    private interface Side {
+
+        Set<Long> existing(Collection<Long> ids);
+
+        Set<Long> enrolled(Collection<Long> ids);
+
+        Set<Long> waitlisted(Collection<Long> ids);
+
+        Long courseIdOf(Long id);
+
+        Object[] pairOf(Long id);
+    }
+}
@@ -0,0 +1,123 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes export records straight to an output stream, one at a time.
+ * Values are written in the order of the column names given at creation.
+ */
+abstract class ExportRecordWriter implements Closeable {
+
+    protected final List<String> columns;
+
+    protected ExportRecordWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    static ExportRecordWriter create(DataFormat format, OutputStream output, ObjectMapper objectMapper,
+                                     List<String> columns) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(output, columns);
+            case NDJSON -> new Ndjson(output, objectMapper, columns);
+        };
+    }
+
+    /**
+     * Write one record; collection values are written as lists
+     */
+    abstract void write(Object... values) throws IOException;
+
+    /**
+     * CSV with a header row; collection values are joined with semicolons
+     */
+    private static final class Csv extends ExportRecordWriter {
+
+        private final BufferedWriter writer;
+
+        private Csv(OutputStream output, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(String.join(",", columns));
+            writer.newLine();
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.newLine();
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof Collection<?> collection
+                    ? collection.stream().map(String::valueOf).collect(Collectors.joining(";"))
+                    : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private static final class Ndjson extends ExportRecordWriter {
+
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream output, ObjectMapper objectMapper, List<String> columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                if (values[i] instanceof Collection<?> collection) {
+                    generator.writeStartArray();
+                    for (Object element : collection) {
+                        generator.writeObject(element);
+                    }
+                    generator.writeEndArray();
+                } else {
+                    generator.writeObject(values[i]);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
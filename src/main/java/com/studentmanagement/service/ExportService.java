@@ -0,0 +1,139 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.config.ExportProperties;
+import com.studentmanagement.dto.EnrollmentRow;
+import com.studentmanagement.dto.StudentCourseRow;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming exports of students, courses and enrollments.
+ * Rows are read through streaming repository queries and written to the
+ * output as they arrive, so memory stays flat whatever the row count.
+ */
+@Service
+public class ExportService {
+
+    private static final List<String> STUDENT_COLUMNS = List.of("id", "name", "email", "courseIds");
+    private static final List<String> COURSE_COLUMNS = List.of("id", "name", "description");
+    private static final List<String> ENROLLMENT_COLUMNS = List.of("studentId", "courseId");
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties properties;
+
+    public ExportService(StudentRepository studentRepository, CourseRepository courseRepository,
+                         EntityManager entityManager, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, ExportProperties properties) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Export every student with the IDs of the courses they are enrolled in.
+     * Course IDs come from the same ordered join query, so there is no per-student lookup.
+     */
+    public void exportStudents(OutputStream output, DataFormat format) {
+        export(output, format, STUDENT_COLUMNS, writer -> {
+            try (Stream<StudentCourseRow> rows = studentRepository.streamAllWithCourseIds()) {
+                Iterator<StudentCourseRow> iterator = rows.iterator();
+                StudentCourseRow current = null;
+                List<Long> courseIds = new ArrayList<>();
+                long written = 0;
+                while (iterator.hasNext()) {
+                    StudentCourseRow row = iterator.next();
+                    if (current != null && !current.getId().equals(row.getId())) {
+                        writer.write(current.getId(), current.getName(), current.getEmail(), courseIds);
+                        courseIds.clear();
+                        clearPeriodically(++written);
+                    }
+                    current = row;
+                    if (row.getCourseId() != null) {
+                        courseIds.add(row.getCourseId());
+                    }
+                }
+                if (current != null) {
+                    writer.write(current.getId(), current.getName(), current.getEmail(), courseIds);
+                }
+            }
+        });
+    }
+
+    /**
+     * Export every course
+     */
+    public void exportCourses(OutputStream output, DataFormat format) {
+        export(output, format, COURSE_COLUMNS, writer -> {
+            try (Stream<Course> courses = courseRepository.streamAll()) {
+                Iterator<Course> iterator = courses.iterator();
+                long written = 0;
+                while (iterator.hasNext()) {
+                    Course course = iterator.next();
+                    writer.write(course.getId(), course.getName(), course.getDescription());
+                    entityManager.detach(course);
+                    clearPeriodically(++written);
+                }
+            }
+        });
+    }
+
+    /**
+     * Export every student/course enrollment pair
+     */
+    public void exportEnrollments(OutputStream output, DataFormat format) {
+        export(output, format, ENROLLMENT_COLUMNS, writer -> {
+            try (Stream<EnrollmentRow> rows = studentRepository.streamAllEnrollments()) {
+                Iterator<EnrollmentRow> iterator = rows.iterator();
+                long written = 0;
+                while (iterator.hasNext()) {
+                    EnrollmentRow row = iterator.next();
+                    writer.write(row.getStudentId(), row.getCourseId());
+                    clearPeriodically(++written);
+                }
+            }
+        });
+    }
+
+    private void export(OutputStream output, DataFormat format, List<String> columns, ExportBody body) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (ExportRecordWriter writer = ExportRecordWriter.create(format, output, objectMapper, columns)) {
+                body.writeTo(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void clearPeriodically(long written) {
+        if (written % properties.getClearInterval() == 0) {
+            entityManager.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExportBody {
+        void writeTo(ExportRecordWriter writer) throws IOException;
+    }
+}
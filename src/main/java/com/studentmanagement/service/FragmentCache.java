@@ -0,0 +1,333 @@
+package com.studentmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studentmanagement.config.FragmentCacheProperties;
+import com.studentmanagement.config.ReplicaReads;
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.EnrollmentQueuedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of rendered roster fragments of the course and enrollment pages.
+ *
+ * Entries are keyed by fragment and entity ID and hold the entity version they
+ * were rendered at, so an edited course or student misses without any explicit
+ * eviction. Course lists also remember the courses they show, and are only
+ * served while none of those courses has been edited, deleted or, for lists
+ * with seat counts, had its seats change since. Other changes the version does
+ * not capture (enrollments, renamed students) evict entries once they commit;
+ * a change that touches every entry of a fragment just moves that fragment to a
+ * new generation. A render is not cached if its own key was evicted while it
+ * ran, as it may have read the data from before the change. Only the latest
+ * course revisions are kept; a list rendered before them is rendered again. Size is bounded by weight, with Caffeine's frequency-aware
+ * LRU choosing what to evict.
+ *
+ * Fragments are rendered with the current request, so their {@code @{...}}
+ * links carry the context path. Sessions are tracked by cookie only, so no
+ * session ID is written into links that everyone is then served.
+ */
+@Service
+public class FragmentCache {
+
+    /**
+     * Cacheable fragments and the template selector that renders them
+     */
+    public enum Fragment {
+
+        /** First page of enrolled student cards of a course page, by course ID */
+        COURSE_ROSTER("courses/roster", "roster", false, false),
+
+        /** First page of the enrolled course list of a student's enrollment page, by student ID */
+        ENROLLED_COURSES("enrollments/course-lists", "enrolled", true, false),
+
+        /** First page of the available course list, with seat counts, of a student's enrollment page, by student ID */
+        AVAILABLE_COURSES("enrollments/course-lists", "available", true, true);
+
+        private final String template;
+        private final String selector;
+        /** Whether the model's {@code page} is a page of courses */
+        private final boolean listsCourses;
+        private final boolean showsSeats;
+
+        Fragment(String template, String selector, boolean listsCourses, boolean showsSeats) {
+            this.template = template;
+            this.selector = selector;
+            this.listsCourses = listsCourses;
+            this.showsSeats = showsSeats;
+        }
+    }
+
+    private record Key(Fragment fragment, Long id) {
+    }
+
+    /**
+     * @param revision course revision when rendering started
+     * @param courseIds courses the fragment shows, checked against their latest revisions
+     */
+    private record Entry(long version, long generation, long revision, long[] courseIds, String html,
+                         long renderNanos) {
+    }
+
+    private static final long[] NO_COURSES = new long[0];
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    /**
+     * Number of course revisions kept for checking cached lists; older ones are pruned
+     */
+    private static final int TRACKED_REVISIONS = 10_000;
+
+    private final ITemplateEngine templateEngine;
+    private final EnrollmentIndex enrollmentIndex;
+    private final Cache<Key, Entry> cache;
+    private final Map<Fragment, AtomicLong> generations = new EnumMap<>(Fragment.class);
+    /**
+     * Invalidations per stripe of keys, so a render is only kept out of the cache by a change to its own key
+     */
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final AtomicLong courseRevisions = new AtomicLong();
+    private final Map<Long, Long> courseChanges = new ConcurrentHashMap<>();
+    private final Map<Long, Long> seatChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Changes up to this revision have been pruned; lists rendered before it are not served
+     */
+    private volatile long prunedThrough;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter renderTimeSaved;
+
+    public FragmentCache(ITemplateEngine templateEngine, EnrollmentIndex enrollmentIndex,
+                         FragmentCacheProperties properties, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.enrollmentIndex = enrollmentIndex;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                // Two bytes per char is close enough for Latin text held as a String
+                .weigher((Key key, Entry entry) -> entry.html().length() * 2)
+                .recordStats()
+                .build();
+        for (Fragment fragment : Fragment.values()) {
+            generations.put(fragment, new AtomicLong());
+        }
+
+        // Size and evictions; its hit counts include entries found at an outdated version
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fragments");
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("fragment.cache.hit.ratio", this, FragmentCache::hitRatio)
+                .description("Share of fragment renders served from the cache")
+                .register(meterRegistry);
+        this.renderTimeSaved = Counter.builder("fragment.cache.render.time.saved")
+                .description("Template rendering time avoided by cache hits, measured when each entry was rendered")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a fragment for an entity at the given version, rendering it on a miss.
+     * The model is only built on a miss, so it may load the data it needs; the
+     * rest of the request then reads from the primary, as a replica may lag behind.
+     */
+    public String render(Fragment fragment, Long id, long version, Supplier<Map<String, Object>> model) {
+        Key key = new Key(fragment, id);
+        long generation = generations.get(fragment).get();
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version() == version && entry.generation() == generation
+                && coursesUnchanged(fragment, entry)) {
+            hits.increment();
+            renderTimeSaved.increment(entry.renderNanos() / 1e9);
+            return entry.html();
+        }
+        misses.increment();
+        ReplicaReads.usePrimaryForRequest();
+
+        int stripe = stripe(key);
+        long invalidationsSeen = invalidations.get(stripe);
+        long revision = courseRevisions.get();
+        long start = System.nanoTime();
+        Map<String, Object> variables = model.get();
+        String html = templateEngine.process(fragment.template, Set.of(fragment.selector), context(variables));
+        Entry rendered = new Entry(version, generation, revision,
+                fragment.listsCourses ? courseIds(variables) : NO_COURSES, html, System.nanoTime() - start);
+        // Whatever was invalidated while rendering may have been read before its change committed
+        cache.asMap().compute(key,
+                (k, previous) -> invalidations.get(stripe) == invalidationsSeen ? rendered : previous);
+        return html;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        invalidate(Fragment.COURSE_ROSTER, event.courseId());
+        invalidate(Fragment.ENROLLED_COURSES, event.studentId());
+        invalidate(Fragment.AVAILABLE_COURSES, event.studentId());
+        // Other students' available lists only need rendering again if they show the course's seats
+        changed(seatChanges, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentQueued(EnrollmentQueuedEvent event) {
+        // Only the student's own lists show journaled changes
+        invalidate(Fragment.ENROLLED_COURSES, event.studentId());
+        invalidate(Fragment.AVAILABLE_COURSES, event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentUpdated(StudentUpdatedEvent event) {
+        if (enrollmentIndex.isReady()) {
+            enrollmentIndex.getCourseIds(event.studentId())
+                    .forEach(courseId -> invalidate(Fragment.COURSE_ROSTER, courseId));
+        } else {
+            invalidateAll(Fragment.COURSE_ROSTER);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        invalidate(Fragment.ENROLLED_COURSES, event.studentId());
+        invalidate(Fragment.AVAILABLE_COURSES, event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        // The new course may belong on any student's first page of available courses
+        invalidateAll(Fragment.AVAILABLE_COURSES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseUpdated(CourseUpdatedEvent event) {
+        changed(courseChanges, event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        invalidate(Fragment.COURSE_ROSTER, event.courseId());
+        changed(courseChanges, event.courseId());
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fragment.cache.requests")
+                .description("Fragment renders by whether a current cached copy was found")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build a web context from the current request, so links are resolved as in any
+     * other view. The plain context without a request cannot resolve {@code @{/...}} links.
+     */
+    private static IContext context(Map<String, Object> variables) {
+        Locale locale = LocaleContextHolder.getLocale();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            HttpServletRequest request = attributes.getRequest();
+            IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                    .buildExchange(request, attributes.getResponse());
+            return new WebContext(exchange, locale, variables);
+        }
+        return new Context(locale, variables);
+    }
+
+    private static long[] courseIds(Map<String, Object> variables) {
+        KeysetPage<?> page = (KeysetPage<?>) variables.get("page");
+        return page.getItems().stream().mapToLong(course -> ((Course) course).getId()).toArray();
+    }
+
+    private boolean coursesUnchanged(Fragment fragment, Entry entry) {
+        if (entry.courseIds().length > 0 && entry.revision() < prunedThrough) {
+            return false;
+        }
+        for (long courseId : entry.courseIds()) {
+            if (courseChanges.getOrDefault(courseId, 0L) > entry.revision()
+                    || fragment.showsSeats && seatChanges.getOrDefault(courseId, 0L) > entry.revision()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Outdate every entry showing the course that started rendering before now.
+     * A deleted course keeps its revision so lists still showing it are not served.
+     */
+    private void changed(Map<Long, Long> changes, Long courseId) {
+        changes.put(courseId, courseRevisions.incrementAndGet());
+        if (changes.size() > TRACKED_REVISIONS) {
+            prune();
+        }
+    }
+
+    /**
+     * Drop the changes no cached list can still be outdated by: those up to the oldest revision a
+     * list was rendered at, and at least all but the latest half of the tracked revisions. Lists
+     * rendered before that are not served again, so the maps hold at most the tracked revisions.
+     */
+    private synchronized void prune() {
+        long latest = courseRevisions.get();
+        long oldestRendered = cache.asMap().values().stream()
+                .filter(entry -> entry.courseIds().length > 0)
+                .mapToLong(Entry::revision)
+                .min()
+                .orElse(latest);
+        long through = Math.max(prunedThrough, Math.max(oldestRendered, latest - TRACKED_REVISIONS / 2));
+        prunedThrough = through;
+        courseChanges.values().removeIf(revision -> revision <= through);
+        seatChanges.values().removeIf(revision -> revision <= through);
+    }
+
+    private void invalidate(Fragment fragment, Long id) {
+        Key key = new Key(fragment, id);
+        invalidations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    /**
+     * Entries of older generations are never served again and age out of the cache. A render that
+     * was running meanwhile recorded the generation it started at, so it is not served either.
+     */
+    private void invalidateAll(Fragment fragment) {
+        generations.get(fragment).incrementAndGet();
+    }
+
+    private static int stripe(Key key) {
+        // Not the record's hash, whose enum part differs between runs; neighbouring IDs never share a stripe
+        return Math.floorMod(key.fragment().ordinal() * 31 + Long.hashCode(key.id()), INVALIDATION_STRIPES);
+    }
+}
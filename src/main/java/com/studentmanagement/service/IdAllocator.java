@@ -0,0 +1,97 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.entity.PooledIdGenerator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reserves IDs from the pooled generator table for rows written with plain JDBC.
+ *
+ * Blocks are taken the way Hibernate's PooledIdGenerator takes them: read the
+ * last ID handed out and move it forward only if no one else moved it in between,
+ * in a transaction of its own that commits straight away. JDBC writers and
+ * entities saved through Hibernate therefore never get the same ID.
+ */
+@Service
+public class IdAllocator {
+
+    private static final String SELECT_LAST = "SELECT " + PooledIdGenerator.VALUE_COLUMN + " FROM "
+            + PooledIdGenerator.TABLE + " WHERE " + PooledIdGenerator.SEGMENT_COLUMN + " = ?";
+    private static final String INSERT_LAST = "INSERT INTO " + PooledIdGenerator.TABLE + " ("
+            + PooledIdGenerator.SEGMENT_COLUMN + ", " + PooledIdGenerator.VALUE_COLUMN + ") VALUES (?, ?)";
+    private static final String UPDATE_LAST = "UPDATE " + PooledIdGenerator.TABLE + " SET "
+            + PooledIdGenerator.VALUE_COLUMN + " = ? WHERE " + PooledIdGenerator.SEGMENT_COLUMN + " = ? AND "
+            + PooledIdGenerator.VALUE_COLUMN + " = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate separateTransaction;
+
+    public IdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserve {@code count} consecutive IDs for an entity table
+     *
+     * @return the first reserved ID
+     */
+    public long reserve(String table, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Cannot reserve " + count + " IDs");
+        }
+        while (true) {
+            try {
+                Long reserved = separateTransaction.execute(status -> {
+                    Long last = lastUsed(table);
+                    if (last == null) {
+                        jdbcTemplate.update(INSERT_LAST, table, (long) count);
+                        return 1L;
+                    }
+                    return jdbcTemplate.update(UPDATE_LAST, last + count, table, last) == 1 ? last + 1 : null;
+                });
+                if (reserved != null) {
+                    return reserved;
+                }
+            } catch (DuplicateKeyException e) {
+                // Someone else created the row first; take a block from it
+            }
+        }
+    }
+
+    /**
+     * Make the generator hand out IDs above {@code maxId}, after rows were written with IDs of their own.
+     * Blocks Hibernate already holds in memory are not affected, so only use this before any entity is saved.
+     */
+    public void advancePast(String table, long maxId) {
+        while (true) {
+            try {
+                Boolean done = separateTransaction.execute(status -> {
+                    Long last = lastUsed(table);
+                    if (last == null) {
+                        jdbcTemplate.update(INSERT_LAST, table, maxId);
+                        return true;
+                    }
+                    return last >= maxId || jdbcTemplate.update(UPDATE_LAST, maxId, table, last) == 1;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    return;
+                }
+            } catch (DuplicateKeyException e) {
+                // Someone else created the row first; check it again
+            }
+        }
+    }
+
+    private Long lastUsed(String table) {
+        List<Long> last = jdbcTemplate.queryForList(SELECT_LAST, Long.class, table);
+        return last.isEmpty() ? null : last.get(0);
+    }
+}
@@ -0,0 +1,175 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an upload one record at a time so the whole file is never held in memory.
+ * Each record is a map of field name to raw value.
+ */
+abstract class ImportRecordReader implements Closeable {
+
+    protected final BufferedReader reader;
+
+    protected ImportRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static ImportRecordReader create(DataFormat format, BufferedReader reader, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new Csv(reader);
+            case NDJSON -> new Ndjson(reader, objectMapper);
+        };
+    }
+
+    /**
+     * Read the next record, or {@code null} at the end of the input
+     *
+     * @throws IllegalArgumentException if the record itself is malformed
+     */
+    abstract Map<String, String> next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * RFC 4180 style CSV with a mandatory header row
+     */
+    private static final class Csv extends ImportRecordReader {
+
+        private List<String> header;
+
+        private Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            if (header == null) {
+                List<String> names = readFields();
+                if (names == null) {
+                    return null;
+                }
+                header = names.stream().map(name -> name.trim().toLowerCase()).toList();
+            }
+
+            List<String> fields;
+            do {
+                fields = readFields();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + fields.size());
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                record.put(header.get(i), fields.get(i));
+            }
+            return record;
+        }
+
+        private List<String> readFields() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Quoted field spanning lines
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private static final class Ndjson extends ImportRecordReader {
+
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+
+            Map<String, String> record = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                record.put(field.getKey().toLowerCase(), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            return record;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.LoadTestProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Fills an empty database with a synthetic dataset for load and capacity testing.
+ *
+ * Students are written in chunks by a thread pool, each chunk in its own
+ * transaction with explicit IDs so that chunks never wait on each other.
+ * Course popularity follows a Zipf distribution, and every chunk draws from
+ * its own seeded random, so the data depends only on the settings and not on
+ * thread scheduling. Runs as an ApplicationRunner, before the in-memory
+ * indexes are built on ApplicationReadyEvent.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Alan", "Amara", "Andrea", "Anika", "Ben", "Carlos", "Chen", "Chloe", "Daniel", "Divya", "Elena",
+            "Emeka", "Fatima", "Grace", "Hana", "Hiroshi", "Ibrahim", "Isla", "Jamal", "Jonas", "Julia", "Kai",
+            "Kofi", "Laura", "Leila", "Liam", "Lucia", "Marco", "Maya", "Mei", "Nadia", "Noah", "Olga", "Omar",
+            "Priya", "Rafael", "Rosa", "Sami", "Sara", "Sofia", "Tariq", "Tomas", "Wei", "Yara", "Yusuf", "Zoe"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Adeyemi", "Alvarez", "Andersen", "Bauer", "Brown", "Chen", "Costa", "Dubois", "Eriksson", "Fischer",
+            "Garcia", "Gupta", "Haddad", "Ivanova", "Jensen", "Kim", "Kowalski", "Laurent", "Lee", "Mensah",
+            "Moreau", "Muller", "Nakamura", "Nguyen", "Novak", "Okafor", "Olsen", "Patel", "Petrov", "Rossi",
+            "Santos", "Schmidt", "Silva", "Singh", "Smith", "Tanaka", "Torres", "Wang", "Weber", "Yilmaz"
+    };
+
+    private static final String[] COURSE_LEVELS = {
+            "Introduction to", "Foundations of", "Topics in", "Applied", "Advanced", "Seminar in"
+    };
+
+    private static final String[] SUBJECTS = {
+            "Algebra", "Anthropology", "Architecture", "Astronomy", "Biology", "Chemistry", "Computer Science",
+            "Economics", "Engineering", "Ethics", "Film Studies", "Geography", "Geology", "History", "Law",
+            "Linguistics", "Literature", "Mathematics", "Music", "Philosophy", "Physics", "Political Science",
+            "Psychology", "Sociology", "Statistics"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IdAllocator idAllocator;
+    private final LoadTestProperties properties;
+
+    public LoadTestDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 IdAllocator idAllocator, LoadTestProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idAllocator = idAllocator;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path snapshot = properties.getSnapshot();
+        if (snapshot != null && Files.exists(snapshot)) {
+            long started = System.nanoTime();
+            jdbcTemplate.execute("RUNSCRIPT FROM " + quote(snapshot) + " COMPRESSION ZIP");
+            // Snapshots written before the pooled ID generator carry no generator rows
+            advanceIdGenerators();
+            log.info("Restored load test data from {} in {} ms; delete it to regenerate", snapshot,
+                    (System.nanoTime() - started) / 1_000_000);
+            return;
+        }
+
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping load test data generation: database already has {} students", existing);
+            return;
+        }
+
+        generate();
+
+        if (snapshot != null) {
+            long started = System.nanoTime();
+            try {
+                Path parent = snapshot.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create snapshot directory for " + snapshot, e);
+            }
+            jdbcTemplate.execute("SCRIPT DROP TO " + quote(snapshot) + " COMPRESSION ZIP");
+            log.info("Wrote load test snapshot to {} in {} ms", snapshot, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private void generate() {
+        long started = System.nanoTime();
+        int students = properties.getStudents();
+        int courses = properties.getCourses();
+
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        transactionTemplate.executeWithoutResult(status -> insertCourses(courses, random));
+
+        // Popularity rank -> course ID, shuffled so the popular courses are spread over the ID range
+        int[] courseByRank = new int[courses];
+        Arrays.setAll(courseByRank, i -> i + 1);
+        for (int i = courses - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = courseByRank[i];
+            courseByRank[i] = courseByRank[j];
+            courseByRank[j] = swap;
+        }
+        double[] popularity = zipfDistribution(courses, properties.getSkew());
+        AtomicIntegerArray enrolledCounts = new AtomicIntegerArray(courses + 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()));
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int first = 1; first <= students; first += CHUNK_SIZE) {
+                int from = first;
+                int to = Math.min(first + CHUNK_SIZE - 1, students);
+                chunks.add(pool.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                        insertStudents(from, to, courseByRank, popularity, enrolledCounts))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test data generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long enrollments = 0;
+        List<Object[]> counts = new ArrayList<>(courses);
+        for (int courseId = 1; courseId <= courses; courseId++) {
+            counts.add(new Object[] {enrolledCounts.get(courseId), courseId});
+            enrollments += enrolledCounts.get(courseId);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                batchUpdate("UPDATE courses SET enrolled_count = ? WHERE id = ?", counts));
+
+        // Rows were written with explicit IDs, so move the ID generators past them
+        advanceIdGenerators();
+
+        log.info("Generated {} students, {} courses and {} enrollments in {} ms", students, courses, enrollments,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void advanceIdGenerators() {
+        for (String table : List.of("courses", "students")) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            idAllocator.advancePast(table, maxId == null ? 0 : maxId);
+        }
+    }
+
+    private void insertCourses(int courses, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(courses);
+        for (int id = 1; id <= courses; id++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            String name = COURSE_LEVELS[random.nextInt(COURSE_LEVELS.length)] + " " + subject + " " + (100 + id % 900);
+            rows.add(new Object[] {id, name, "A synthetic " + subject.toLowerCase(Locale.ROOT) + " course"});
+        }
+        batchUpdate("INSERT INTO courses (id, name, description) VALUES (?, ?, ?)", rows);
+    }
+
+    private void insertStudents(int from, int to, int[] courseByRank, double[] popularity,
+                                AtomicIntegerArray enrolledCounts) {
+        SplittableRandom random = new SplittableRandom(properties.getSeed() + from);
+        int maxEnrollments = Math.min(2 * properties.getEnrollmentsPerStudent(), courseByRank.length);
+
+        List<Object[]> students = new ArrayList<>(to - from + 1);
+        List<Object[]> enrollments = new ArrayList<>();
+        int[] picked = new int[maxEnrollments];
+        for (int id = from; id <= to; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = (first + "." + last + "." + id + "@loadtest.example").toLowerCase(Locale.ROOT);
+            students.add(new Object[] {id, first + " " + last, email});
+
+            // Draw distinct courses; heavy skew can keep hitting the same few, so give up after a while
+            int wanted = random.nextInt(maxEnrollments + 1);
+            int count = 0;
+            for (int attempt = 0; count < wanted && attempt < wanted * 20; attempt++) {
+                int courseId = courseByRank[sample(popularity, random.nextDouble())];
+                if (!contains(picked, count, courseId)) {
+                    picked[count++] = courseId;
+                    enrollments.add(new Object[] {id, courseId});
+                    enrolledCounts.incrementAndGet(courseId);
+                }
+            }
+        }
+        batchUpdate("INSERT INTO students (id, name, email) VALUES (?, ?, ?)", students);
+        batchUpdate("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)", enrollments);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    /**
+     * Cumulative Zipf distribution over popularity ranks
+     */
+    private static double[] zipfDistribution(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double uniform) {
+        int index = Arrays.binarySearch(cumulative, uniform);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,169 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.CourseResource;
+import com.studentmanagement.dto.EnrollmentResource;
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.dto.StudentResource;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only queries behind the JSON API.
+ * Everything is selected straight into API resources, never through entities, and only
+ * costs what was asked for: course counts are a grouped query only when requested, and
+ * embedded enrollments are one batch query for the whole page.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ResourceQueryService {
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    public ResourceQueryService(StudentRepository studentRepository, CourseRepository courseRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * One keyset page of students
+     */
+    public KeysetPage<StudentResource> getStudents(Long after, Long before, int size, Sort.Direction direction,
+                                                   boolean withCourseCount, boolean withEnrollments) {
+        boolean backward = before != null;
+        Long cursor = backward ? before : after;
+        boolean ascending = direction.isAscending() != backward;
+        Long from = cursor != null ? cursor : ascending ? 0L : Long.MAX_VALUE;
+        Limit limit = Limit.of(size + 1);
+
+        List<StudentResource> rows;
+        if (withCourseCount) {
+            List<StudentSummary> summaries = ascending
+                    ? studentRepository.findSummariesAfter(from, limit)
+                    : studentRepository.findSummariesBefore(from, limit);
+            rows = summaries.stream().map(StudentResource::of).toList();
+        } else {
+            rows = ascending
+                    ? studentRepository.findResourcesAfter(from, limit)
+                    : studentRepository.findResourcesBefore(from, limit);
+        }
+
+        KeysetPage<StudentResource> page = KeysetPage.of(rows, size, backward, cursor != null, StudentResource::getId);
+        if (withEnrollments) {
+            embedStudentEnrollments(page.getItems());
+        }
+        return page;
+    }
+
+    /**
+     * One student, always with its course count
+     */
+    public StudentResource getStudent(Long id, boolean withEnrollments) {
+        List<StudentSummary> summaries = studentRepository.findSummariesByIds(List.of(id));
+        if (summaries.isEmpty()) {
+            throw new IllegalArgumentException("Student not found with ID: " + id);
+        }
+        StudentResource student = StudentResource.of(summaries.get(0));
+        if (withEnrollments) {
+            embedStudentEnrollments(List.of(student));
+        }
+        return student;
+    }
+
+    /**
+     * One keyset page of a student's enrollments, ordered by course ID
+     */
+    public KeysetPage<EnrollmentResource> getStudentEnrollments(Long studentId, Long after, int size) {
+        List<EnrollmentResource> rows = studentRepository.findEnrollmentsOfStudent(
+                studentId, after != null ? after : 0L, Limit.of(size + 1));
+        if (rows.isEmpty() && !studentRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return KeysetPage.of(rows, size, false, after != null, EnrollmentResource::getCourseId);
+    }
+
+    /**
+     * One keyset page of courses
+     */
+    public KeysetPage<CourseResource> getCourses(Long after, Long before, int size, Sort.Direction direction,
+                                                 boolean withEnrollments) {
+        boolean backward = before != null;
+        Long cursor = backward ? before : after;
+        boolean ascending = direction.isAscending() != backward;
+        Long from = cursor != null ? cursor : ascending ? 0L : Long.MAX_VALUE;
+        Limit limit = Limit.of(size + 1);
+
+        List<CourseResource> rows = ascending
+                ? courseRepository.findResourcesAfter(from, limit)
+                : courseRepository.findResourcesBefore(from, limit);
+
+        KeysetPage<CourseResource> page = KeysetPage.of(rows, size, backward, cursor != null, CourseResource::getId);
+        if (withEnrollments) {
+            embedCourseEnrollments(page.getItems());
+        }
+        return page;
+    }
+
+    /**
+     * One course
+     */
+    public CourseResource getCourse(Long id, boolean withEnrollments) {
+        CourseResource course = courseRepository.findResourceById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
+        if (withEnrollments) {
+            embedCourseEnrollments(List.of(course));
+        }
+        return course;
+    }
+
+    /**
+     * One keyset page of a course's enrollments, ordered by student ID
+     */
+    public KeysetPage<EnrollmentResource> getCourseEnrollments(Long courseId, Long after, int size) {
+        List<EnrollmentResource> rows = courseRepository.findEnrollmentsOfCourse(
+                courseId, after != null ? after : 0L, Limit.of(size + 1));
+        if (rows.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        return KeysetPage.of(rows, size, false, after != null, EnrollmentResource::getStudentId);
+    }
+
+    private void embedStudentEnrollments(List<StudentResource> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Map<Long, List<EnrollmentResource>> byStudent = group(
+                studentRepository.findEnrollmentsByStudentIds(ids(students, StudentResource::getId)),
+                EnrollmentResource::getStudentId);
+        students.forEach(student -> student.setEnrollments(byStudent.getOrDefault(student.getId(), List.of())));
+    }
+
+    private void embedCourseEnrollments(List<CourseResource> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+        Map<Long, List<EnrollmentResource>> byCourse = group(
+                courseRepository.findEnrollmentsByCourseIds(ids(courses, CourseResource::getId)),
+                EnrollmentResource::getCourseId);
+        courses.forEach(course -> course.setEnrollments(byCourse.getOrDefault(course.getId(), List.of())));
+    }
+
+    private static <T> List<Long> ids(List<T> items, Function<T, Long> idOf) {
+        return items.stream().map(idOf).toList();
+    }
+
+    private static Map<Long, List<EnrollmentResource>> group(List<EnrollmentResource> rows,
+                                                             Function<EnrollmentResource, Long> key) {
+        return rows.stream().collect(Collectors.groupingBy(key));
+    }
+}
@@ -0,0 +1,22 @@
+package com.studentmanagement.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rerun a transactional service method, in a fresh transaction, when it loses
+ * an optimistic locking race. Applied by {@link RetryOnConflictAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Total number of attempts, the first one included
+     */
+    int maxAttempts() default 3;
+}
@@ -0,0 +1,61 @@
+package com.studentmanagement.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods after an optimistic locking failure.
+ *
+ * Ordered ahead of the transaction advisor, so every attempt runs in its own
+ * transaction and sees the rows as committed by the winner. Calls made inside
+ * an existing transaction are not retried, since that transaction is already
+ * marked for rollback.
+ */
+@Aspect
+@Component
+@Order(0)
+public class RetryOnConflictAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryOnConflictAspect.class);
+
+    private static final long BACKOFF_MILLIS = 10;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    throw new OptimisticLockingFailureException(describe(e)
+                            + " is being changed by someone else right now; please try again", e);
+                }
+                log.debug("Optimistic locking conflict in {}, attempt {} of {}",
+                        joinPoint.getSignature().toShortString(), attempt, retryOnConflict.maxAttempts());
+                // Jittered so that the writers that collided do not collide again
+                Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS * attempt + 1));
+            }
+        }
+    }
+
+    private static String describe(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException failure) {
+            String className = failure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "This record";
+    }
+}
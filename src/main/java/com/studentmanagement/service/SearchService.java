@@ -0,0 +1,212 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.SearchPage;
+import com.studentmanagement.dto.SearchRow;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Service for ranked substring search over students (name, email) and
+ * courses (name, description).
+ *
+ * Both are served from in-memory n-gram indexes built at startup and kept
+ * current by the domain events published once writes commit. Until the
+ * indexes are built, or if an ID outgrows the int range, searches fall back
+ * to LIKE queries ordered by ID.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    /**
+     * Longer queries are cut, they would only narrow the result further
+     */
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextIndex students = new TextIndex();
+    private final TextIndex courses = new TextIndex();
+    private volatile boolean ready;
+
+    public SearchService(StudentRepository studentRepository, CourseRepository courseRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    /**
+     * Search students by name or email, best matches first
+     */
+    @Transactional(readOnly = true)
+    public SearchPage<StudentSummary> searchStudents(String query, int page, int size) {
+        String text = trim(query);
+        TextIndex.Result result = ready ? search(students, text, page, size) : likeSearch(text, page, size,
+                studentRepository::findIdsMatching, studentRepository::countMatching);
+        List<StudentSummary> items = inOrder(result.ids(), studentRepository::findSummariesByIds, StudentSummary::getId);
+        return new SearchPage<>(text, items, page, size, result.total(), result.exact());
+    }
+
+    /**
+     * Search courses by name or description, best matches first
+     */
+    @Transactional(readOnly = true)
+    public SearchPage<CourseSummary> searchCourses(String query, int page, int size) {
+        String text = trim(query);
+        TextIndex.Result result = ready ? search(courses, text, page, size) : likeSearch(text, page, size,
+                courseRepository::findIdsMatching, courseRepository::countMatching);
+        List<CourseSummary> items = inOrder(result.ids(), courseRepository::findSummariesByIds, CourseSummary::getId);
+        return new SearchPage<>(text, items, page, size, result.total(), result.exact());
+    }
+
+    /**
+     * Rebuild both indexes from the database.
+     * Event updates wait for the rebuild, so none is lost to it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            students.clear();
+            courses.clear();
+            try (Stream<SearchRow> rows = studentRepository.streamSearchRows()) {
+                rows.forEach(row -> students.put(toInt(row.getId()), row.getTitle(), row.getDetail()));
+            }
+            try (Stream<SearchRow> rows = courseRepository.streamSearchRows()) {
+                rows.forEach(row -> courses.put(toInt(row.getId()), row.getTitle(), row.getDetail()));
+            }
+            ready = true;
+            log.info("Built search index: {} students, {} courses", students.size(), courses.size());
+        } catch (ArithmeticException e) {
+            disable();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        update(() -> students.put(toInt(event.studentId()), event.name(), event.email()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentUpdated(StudentUpdatedEvent event) {
+        update(() -> students.put(toInt(event.studentId()), event.name(), event.email()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        update(() -> students.remove(toInt(event.studentId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        update(() -> courses.put(toInt(event.courseId()), event.name(), event.description()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseUpdated(CourseUpdatedEvent event) {
+        update(() -> courses.put(toInt(event.courseId()), event.name(), event.description()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        update(() -> courses.remove(toInt(event.courseId())));
+    }
+
+    private TextIndex.Result search(TextIndex index, String query, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, page * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static TextIndex.Result likeSearch(String query, int page, int size,
+                                               BiFunction<String, Pageable, List<Long>> findIds,
+                                               Function<String, Long> count) {
+        String normalized = TextIndex.normalize(query);
+        if (normalized.isEmpty()) {
+            return new TextIndex.Result(List.of(), 0, true);
+        }
+        String pattern = "%" + normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<Long> ids = findIds.apply(pattern, PageRequest.of(page, size));
+        return new TextIndex.Result(ids, Math.toIntExact(count.apply(pattern)), true);
+    }
+
+    /**
+     * Load summaries for ranked IDs and put them back in rank order
+     */
+    private static <T> List<T> inOrder(List<Long> ids, Function<List<Long>, List<T>> load, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return load.apply(ids).stream()
+                .sorted(Comparator.comparing(item -> rank.get(idOf.apply(item))))
+                .toList();
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } catch (ArithmeticException e) {
+            disable();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void disable() {
+        if (ready) {
+            log.warn("Entity IDs exceed the int range, search falls back to SQL");
+        }
+        ready = false;
+        students.clear();
+        courses.clear();
+    }
+
+    private static String trim(String query) {
+        String text = query == null ? "" : query.strip();
+        return text.length() > MAX_QUERY_LENGTH ? text.substring(0, MAX_QUERY_LENGTH) : text;
+    }
+
+    private static int toInt(Long id) {
+        return Math.toIntExact(id);
+    }
+}
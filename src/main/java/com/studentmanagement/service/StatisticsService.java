@@ -0,0 +1,346 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.StatisticsProperties;
+import com.studentmanagement.dto.DashboardStatistics;
+import com.studentmanagement.dto.PopularCourse;
+import com.studentmanagement.event.CourseCreatedEvent;
+import com.studentmanagement.event.CourseDeletedEvent;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service keeping the dashboard statistics in memory.
+ * Counters are seeded from aggregate queries at startup, updated from the
+ * domain events published by the write paths once they commit, and
+ * periodically reconciled against the database.
+ */
+@Service
+public class StatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsService.class);
+
+    private static final Comparator<PopularCourse> BY_POPULARITY = Comparator
+            .comparingLong(PopularCourse::getStudentCount)
+            .thenComparing(PopularCourse::getId, Comparator.reverseOrder());
+
+    private static final Duration CONFIRM_DELAY = Duration.ofSeconds(1);
+    private static final long ABSENT = -1;
+    private static final String STUDENTS = "students";
+    private static final String COURSES = "courses";
+    private static final String ENROLLMENTS = "enrollments";
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final StatisticsProperties properties;
+    private final TransactionTemplate primaryTransaction;
+
+    private final AtomicLong studentCount = new AtomicLong();
+    private final AtomicLong courseCount = new AtomicLong();
+    private final AtomicLong enrollmentCount = new AtomicLong();
+    private final Map<String, AtomicLong> countersByName = Map.of(
+            STUDENTS, studentCount, COURSES, courseCount, ENROLLMENTS, enrollmentCount);
+    private final Map<Long, CourseCounter> courseCounters = new ConcurrentHashMap<>();
+
+    /**
+     * The most popular courses, lowest ranked first; every course with students is either in here
+     * or ranks below all of them. Guarded by itself.
+     */
+    private final TreeSet<PopularCourse> topCourses = new TreeSet<>(BY_POPULARITY);
+    private volatile boolean topCoursesStale = true;
+    private volatile List<PopularCourse> popularCourses = List.of();
+
+    public StatisticsService(StudentRepository studentRepository, CourseRepository courseRepository,
+                             StatisticsProperties properties, PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.properties = properties;
+        // Read-write so that the queries go to the primary
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Get the current dashboard statistics without touching the database
+     */
+    public DashboardStatistics getStatistics() {
+        return new DashboardStatistics(studentCount.get(), courseCount.get(), enrollmentCount.get(),
+                getPopularCourses());
+    }
+
+    /**
+     * Get the most popular courses, re-ranking all courses only when the ranking could not be kept up to date
+     */
+    public List<PopularCourse> getPopularCourses() {
+        if (topCoursesStale) {
+            synchronized (topCourses) {
+                if (topCoursesStale) {
+                    rankPopularCourses();
+                }
+            }
+        }
+        return popularCourses;
+    }
+
+    /**
+     * Correct every counter that differs from the aggregate queries.
+     *
+     * The queries run on the primary, since a lagging replica would roll the counters back.
+     * A counter is moved by its difference from the database only if the difference is
+     * still the same when checked again a moment later. A change can commit before the
+     * queries and reach its listener only after the counters were read; such a difference
+     * is gone by the second check, while a real one stays.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval:PT5M}",
+               fixedDelayString = "${app.statistics.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<Object, Difference> drift = findDrift();
+        if (!drift.isEmpty()) {
+            try {
+                Thread.sleep(CONFIRM_DELAY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Map<Object, Difference> again = findDrift();
+            drift.keySet().removeIf(key -> !drift.get(key).equals(again.get(key)));
+        }
+        if (drift.isEmpty()) {
+            return;
+        }
+
+        drift.forEach((key, difference) -> {
+            if (key instanceof Long courseId) {
+                if (difference.stored() == ABSENT) {
+                    courseCounters.remove(courseId);
+                } else {
+                    CourseCounter counter = courseCounters.computeIfAbsent(courseId,
+                            id -> new CourseCounter(difference.name(), 0));
+                    counter.name = difference.name();
+                    counter.students.addAndGet(difference.offset());
+                }
+            } else {
+                countersByName.get(key).addAndGet(difference.offset());
+            }
+        });
+        log.info("Reconciled statistics: {}", drift.entrySet().stream()
+                .limit(5)
+                .map(entry -> (entry.getKey() instanceof Long ? "course " : "") + entry.getKey()
+                        + " off by " + -entry.getValue().offset())
+                .collect(Collectors.joining(", ")));
+        topCoursesStale = true;
+    }
+
+    /**
+     * Compare every counter with the database. Counters that changed while the database was
+     * read cannot be compared and are left out.
+     */
+    private Map<Object, Difference> findDrift() {
+        Map<Object, Long> before = counts();
+        Map<Object, Difference> stored = primaryTransaction.execute(status -> {
+            Map<Object, Difference> database = new HashMap<>();
+            long enrollments = 0;
+            List<PopularCourse> courses = courseRepository.findEnrollmentCounts();
+            for (PopularCourse course : courses) {
+                database.put(course.getId(), new Difference(course.getName(), 0, course.getStudentCount()));
+                enrollments += course.getStudentCount();
+            }
+            database.put(STUDENTS, new Difference(null, 0, studentRepository.count()));
+            database.put(COURSES, new Difference(null, 0, courses.size()));
+            database.put(ENROLLMENTS, new Difference(null, 0, enrollments));
+            return database;
+        });
+        Map<Object, Long> after = counts();
+
+        Set<Object> keys = new HashSet<>(stored.keySet());
+        keys.addAll(before.keySet());
+        Map<Object, Difference> drift = new LinkedHashMap<>();
+        for (Object key : keys) {
+            long counted = before.getOrDefault(key, ABSENT);
+            Difference database = stored.getOrDefault(key, new Difference(null, 0, ABSENT));
+            if (counted == after.getOrDefault(key, ABSENT) && counted != database.stored()) {
+                drift.put(key, new Difference(database.name(), counted, database.stored()));
+            }
+        }
+        return drift;
+    }
+
+    private Map<Object, Long> counts() {
+        Map<Object, Long> counts = new HashMap<>();
+        countersByName.forEach((name, counter) -> counts.put(name, counter.get()));
+        courseCounters.forEach((id, counter) -> counts.put(id, counter.students.get()));
+        return counts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        studentCount.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        studentCount.decrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        courseCount.incrementAndGet();
+        courseCounters.putIfAbsent(event.courseId(), new CourseCounter(event.name(), 0));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseUpdated(CourseUpdatedEvent event) {
+        CourseCounter counter = courseCounters.get(event.courseId());
+        if (counter != null) {
+            counter.name = event.name();
+            rerank(event.courseId(), counter);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        courseCount.decrementAndGet();
+        CourseCounter counter = courseCounters.remove(event.courseId());
+        if (counter != null) {
+            enrollmentCount.addAndGet(-counter.students.get());
+            rerank(event.courseId(), counter);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        int delta = event.enrolled() ? 1 : -1;
+        enrollmentCount.addAndGet(delta);
+        CourseCounter counter = courseCounters.get(event.courseId());
+        if (counter != null) {
+            counter.students.addAndGet(delta);
+            rerank(event.courseId(), counter);
+        }
+    }
+
+    /**
+     * Move one course within the ranking after its counter changed. Only when a ranked course
+     * drops below the lowest ranked one can a course outside the ranking overtake it; the
+     * ranking is then rebuilt on the next read.
+     */
+    private void rerank(Long id, CourseCounter counter) {
+        synchronized (topCourses) {
+            if (topCoursesStale) {
+                return;
+            }
+            int limit = properties.getPopularCourses();
+            PopularCourse previous = counter.ranked;
+            PopularCourse lowest = topCourses.isEmpty() ? null : topCourses.first();
+            boolean full = topCourses.size() >= limit;
+            long students = counter.students.get();
+            PopularCourse current = students > 0 && courseCounters.get(id) == counter
+                    ? new PopularCourse(id, counter.name, students)
+                    : null;
+
+            if (previous != null) {
+                topCourses.remove(previous);
+                counter.ranked = null;
+                if (full && (current == null || BY_POPULARITY.compare(current, lowest) < 0)) {
+                    topCoursesStale = true;
+                    return;
+                }
+            }
+            if (current != null && (topCourses.size() < limit || BY_POPULARITY.compare(current, lowest) > 0)) {
+                topCourses.add(current);
+                counter.ranked = current;
+                if (topCourses.size() > limit) {
+                    dropLowestRanked();
+                }
+            } else if (previous == null) {
+                return;
+            }
+            popularCourses = List.copyOf(topCourses.descendingSet());
+        }
+    }
+
+    /**
+     * Rank all courses from scratch; called holding the ranking's lock
+     */
+    private void rankPopularCourses() {
+        int limit = properties.getPopularCourses();
+        topCourses.clear();
+        courseCounters.forEach((id, counter) -> {
+            counter.ranked = null;
+            long students = counter.students.get();
+            if (students <= 0) {
+                return;
+            }
+            PopularCourse course = new PopularCourse(id, counter.name, students);
+            if (topCourses.size() < limit || BY_POPULARITY.compare(course, topCourses.first()) > 0) {
+                topCourses.add(course);
+                counter.ranked = course;
+                if (topCourses.size() > limit) {
+                    dropLowestRanked();
+                }
+            }
+        });
+        popularCourses = List.copyOf(topCourses.descendingSet());
+        topCoursesStale = false;
+    }
+
+    private void dropLowestRanked() {
+        CourseCounter counter = courseCounters.get(topCourses.pollFirst().getId());
+        if (counter != null) {
+            counter.ranked = null;
+        }
+    }
+
+    /**
+     * A counter's value and the database's, either of which may be {@link #ABSENT} for a course
+     */
+    private record Difference(String name, long counted, long stored) {
+
+        private long offset() {
+            return (stored == ABSENT ? 0 : stored) - (counted == ABSENT ? 0 : counted);
+        }
+    }
+
+    /**
+     * Per-course enrollment counter
+     */
+    private static final class CourseCounter {
+
+        private volatile String name;
+        private final AtomicLong students;
+
+        /**
+         * This course's entry in the ranking, if it has one; guarded by the ranking's lock
+         */
+        private PopularCourse ranked;
+
+        private CourseCounter(String name, long students) {
+            this.name = name;
+            this.students = new AtomicLong(students);
+        }
+    }
+}
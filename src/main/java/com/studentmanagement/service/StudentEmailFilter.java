@@ -0,0 +1,205 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.EmailFilterProperties;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import com.studentmanagement.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over all student emails, used to skip the database lookup
+ * for emails that are definitely not taken.
+ *
+ * The filter is loaded at startup and fed new emails from the domain events
+ * published once writes commit. Bloom filters cannot forget, so deleted and
+ * replaced emails stay in it as stale entries until a periodic rebuild. An
+ * email that commits just before its event is handled may briefly look free;
+ * the unique constraint on the email column still rejects the duplicate.
+ */
+@Service
+public class StudentEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentEmailFilter.class);
+
+    private final StudentRepository studentRepository;
+    private final EmailFilterProperties properties;
+    private final TransactionTemplate primaryTransaction;
+
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositives;
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public StudentEmailFilter(StudentRepository studentRepository, EmailFilterProperties properties,
+                              MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.properties = properties;
+        // Read-write so that the emails come from the primary, whose commits the events follow
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.absent = checks(meterRegistry, "absent");
+        this.present = checks(meterRegistry, "present");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        Gauge.builder("email.filter.false.positive.rate", this, StudentEmailFilter::observedFalsePositiveRate)
+                .description("Share of emails not in the database that the filter could not rule out")
+                .register(meterRegistry);
+        Gauge.builder("email.filter.expected.false.positive.rate", this, StudentEmailFilter::expectedFalsePositiveRate)
+                .description("False-positive probability implied by the filter's fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether a student already has the email, asking the database only
+     * when the filter cannot rule it out
+     */
+    public boolean emailExists(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = studentRepository.existsByEmail(email);
+        if (current != null) {
+            (exists ? present : falsePositives).increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Find which of the given emails are taken, querying only those the filter cannot rule out
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        BloomFilter current = filter;
+        List<String> candidates = current == null
+                ? new ArrayList<>(emails)
+                : emails.stream().filter(current::mightContain).toList();
+        if (current != null) {
+            absent.increment(emails.size() - candidates.size());
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = studentRepository.findExistingEmails(candidates);
+        if (current != null) {
+            present.increment(existing.size());
+            falsePositives.increment(candidates.size() - existing.size());
+        }
+        return existing;
+    }
+
+    /**
+     * Load a new filter from the database and swap it in.
+     * Emails committed while it loads are added to both filters. The emails are read
+     * only once the new filter is published, so none committed before is missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // A lock rather than synchronized, so a virtual thread waiting on the database here does not pin its carrier
+        rebuildLock.lock();
+        try {
+            long students = studentRepository.count();
+            BloomFilter next = new BloomFilter(Math.max(properties.getExpectedInsertions(), students * 2),
+                    properties.getFalsePositiveRate());
+            building = next;
+            primaryTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = studentRepository.streamAllEmails()) {
+                    emails.forEach(next::put);
+                }
+            });
+            filter = next;
+            building = null;
+            staleEntries.set(0);
+            log.info("Built email filter: {} emails, capacity {}", next.insertions(), next.capacity());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild once the filter is over capacity or holds too many stale entries
+     */
+    @Scheduled(initialDelayString = "${app.email-filter.check-interval:PT5M}",
+               fixedDelayString = "${app.email-filter.check-interval:PT5M}")
+    public void rebuildIfStale() {
+        BloomFilter current = filter;
+        if (current == null || current.insertions() > current.capacity()
+                || staleEntries.get() > current.insertions() * properties.getMaxStaleRatio()) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentCreated(StudentCreatedEvent event) {
+        add(event.email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentUpdated(StudentUpdatedEvent event) {
+        if (!event.email().equals(event.previousEmail())) {
+            add(event.email());
+            staleEntries.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        staleEntries.incrementAndGet();
+    }
+
+    /**
+     * Add an email to the filter and to the one being built. The filter being built is read
+     * first: read the other way round, a rebuild swapping in between would leave the email
+     * only in the filter it replaced.
+     */
+    private void add(String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        BloomFilter current = filter;
+        if (current != null && current != next) {
+            current.put(email);
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double negatives = falsePositives.count() + absent.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+
+    private double expectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? Double.NaN : current.expectedFalsePositiveRate();
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("email.filter.checks")
+                .description("Email uniqueness checks by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
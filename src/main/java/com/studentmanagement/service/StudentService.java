@@ -1,24 +1,72 @@
 package com.studentmanagement.service;
 
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.dto.StudentSummary;
 import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.StudentCreatedEvent;
+import com.studentmanagement.event.StudentDeletedEvent;
+import com.studentmanagement.event.StudentUpdatedEvent;
 import com.studentmanagement.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Student operations
  */
 @Service
 @Transactional
+@Timed(value = "service.calls", histogram = true)
 public class StudentService {
 
+    private static final String UPDATE_IF_VERSION =
+            "UPDATE students SET name = ?, email = ?, version = version + 1, last_modified = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND version = ?";
+    private static final String EMAIL_AT_VERSION = "SELECT email FROM students WHERE id = ? AND version = ?";
+
     private final StudentRepository studentRepository;
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentIndex enrollmentIndex;
+    private final StudentEmailFilter studentEmailFilter;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, EnrollmentService enrollmentService,
+                          EnrollmentIndex enrollmentIndex, StudentEmailFilter studentEmailFilter,
+                          EntityManager entityManager, JdbcTemplate jdbcTemplate, Validator validator,
+                          ApplicationEventPublisher eventPublisher) {
         this.studentRepository = studentRepository;
+        this.enrollmentService = enrollmentService;
+        this.enrollmentIndex = enrollmentIndex;
+        this.studentEmailFilter = studentEmailFilter;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -26,30 +74,129 @@ public class StudentService {
      */
     public Student createStudent(Student student) {
         // Check if email already exists
-        if (studentRepository.existsByEmail(student.getEmail())) {
-            throw new IllegalArgumentException("Student with email " + student.getEmail() + " already exists");
+        if (studentEmailFilter.emailExists(student.getEmail())) {
+            throw duplicateEmail(student.getEmail());
         }
         
-        return studentRepository.save(student);
+        Student savedStudent = saveAndFlush(student);
+        eventPublisher.publishEvent(new StudentCreatedEvent(savedStudent.getId(), savedStudent.getName(),
+                savedStudent.getEmail()));
+        return savedStudent;
     }
 
     /**
-     * Update an existing student
+     * Update an existing student, retried if a concurrent edit commits first
      */
+    @RetryOnConflict
     public Student updateStudent(Long id, Student student) {
         Student existingStudent = studentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + id));
         
         // Check if email is being changed and if new email already exists
-        if (!existingStudent.getEmail().equals(student.getEmail()) && 
-            studentRepository.existsByEmail(student.getEmail())) {
-            throw new IllegalArgumentException("Student with email " + student.getEmail() + " already exists");
+        String previousEmail = existingStudent.getEmail();
+        if (!previousEmail.equals(student.getEmail()) &&
+            studentEmailFilter.emailExists(student.getEmail())) {
+            throw duplicateEmail(student.getEmail());
         }
         
         existingStudent.setName(student.getName());
         existingStudent.setEmail(student.getEmail());
         
-        return studentRepository.save(existingStudent);
+        Student savedStudent = saveAndFlush(existingStudent);
+        eventPublisher.publishEvent(new StudentUpdatedEvent(savedStudent.getId(), previousEmail,
+                savedStudent.getName(), savedStudent.getEmail()));
+        return savedStudent;
+    }
+
+    /**
+     * Update a student with a single UPDATE, provided it is still at the version the
+     * client last saw. The only read is the email the row had at that version, which
+     * the update event reports as the previous one. Email uniqueness is left to the
+     * unique constraint, and a stale version is reported rather than retried, since
+     * the client's edit was based on data that has since changed.
+     */
+    public void updateStudent(Long id, long expectedVersion, Student student) {
+        validate(student);
+        List<String> previousEmail = jdbcTemplate.queryForList(EMAIL_AT_VERSION, String.class, id, expectedVersion);
+        int updated = 0;
+        if (!previousEmail.isEmpty()) {
+            try {
+                updated = jdbcTemplate.update(UPDATE_IF_VERSION, student.getName(), student.getEmail(), id,
+                        expectedVersion);
+            } catch (DataIntegrityViolationException e) {
+                if (violatesEmailConstraint(e)) {
+                    throw duplicateEmail(student.getEmail());
+                }
+                throw e;
+            }
+        }
+        if (updated == 0) {
+            if (!studentRepository.existsById(id)) {
+                throw new IllegalArgumentException("Student not found with ID: " + id);
+            }
+            throw new OptimisticLockingFailureException(
+                    "Student was changed by someone else while you were editing; please review and try again");
+        }
+        evictAfterCommit(id);
+        eventPublisher.publishEvent(new StudentUpdatedEvent(id, previousEmail.get(0), student.getName(),
+                student.getEmail()));
+    }
+
+    /**
+     * Apply the entity's constraints, which Hibernate would check on flush, to a
+     * student about to be written with plain SQL
+     */
+    private void validate(Student student) {
+        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        if (!violations.isEmpty()) {
+            throw new jakarta.validation.ConstraintViolationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")), violations);
+        }
+    }
+
+    /**
+     * The plain UPDATE bypasses Hibernate, so drop the student's second-level cache
+     * entry once it commits rather than let the cache serve the old row
+     */
+    private void evictAfterCommit(Long id) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManager.getEntityManagerFactory().getCache().evict(Student.class, id);
+            }
+        });
+    }
+
+    /**
+     * Flush the save so a concurrent insert of the same email surfaces here
+     * as the usual duplicate email error rather than at commit
+     */
+    private Student saveAndFlush(Student student) {
+        try {
+            return studentRepository.saveAndFlush(student);
+        } catch (DataIntegrityViolationException e) {
+            if (violatesEmailConstraint(e)) {
+                throw duplicateEmail(student.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a write failed on the email unique constraint, whether it went through
+     * Hibernate (which names the constraint) or plain JDBC (which only reports it in the message)
+     */
+    private static boolean violatesEmailConstraint(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : e.getMostSpecificCause().getMessage();
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Student.EMAIL_CONSTRAINT);
+    }
+
+    private static IllegalArgumentException duplicateEmail(String email) {
+        return new IllegalArgumentException("Student with email " + email + " already exists");
     }
 
     /**
@@ -68,31 +215,84 @@ public class StudentService {
         return studentRepository.findAll();
     }
 
+    /**
+     * Get one keyset page of student summaries ordered by ID.
+     * {@code after} pages forwards from a cursor, {@code before} pages backwards.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<StudentSummary> getStudentPage(Long after, Long before, int size, Sort.Direction direction) {
+        boolean backward = before != null;
+        Long cursor = backward ? before : after;
+        Limit limit = Limit.of(size + 1);
+
+        List<StudentSummary> rows;
+        if (direction.isAscending() != backward) {
+            rows = studentRepository.findSummariesAfter(cursor != null ? cursor : 0L, limit);
+        } else {
+            rows = studentRepository.findSummariesBefore(cursor != null ? cursor : Long.MAX_VALUE, limit);
+        }
+        return KeysetPage.of(rows, size, backward, cursor != null, StudentSummary::getId);
+    }
+
     /**
      * Get students enrolled in a course
      */
     @Transactional(readOnly = true)
     public List<Student> getStudentsByCourse(Long courseId) {
+        if (enrollmentIndex.isReady()) {
+            return loadStudents(enrollmentIndex.getStudentIds(courseId));
+        }
         return studentRepository.findByCourseId(courseId);
     }
 
+    /**
+     * Get one keyset page of the students enrolled in a course, ordered by ID.
+     * Only the page's IDs are queried; the students come from the second-level cache where possible.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> getStudentPageByCourse(Long courseId, Long after, int size) {
+        List<Long> ids = studentRepository.findIdsByCourseIdAfter(courseId, after != null ? after : 0L,
+                Limit.of(size + 1));
+        KeysetPage<Long> page = KeysetPage.of(ids, size, false, after != null, Function.identity());
+        return page.withItems(loadStudents(page.getItems()));
+    }
+
     /**
      * Get students not enrolled in a course
      */
     @Transactional(readOnly = true)
     public List<Student> getStudentsNotEnrolledInCourse(Long courseId) {
+        if (enrollmentIndex.isReady()) {
+            return loadStudents(enrollmentIndex.getStudentIdsNotEnrolled(courseId));
+        }
         return studentRepository.findNotEnrolledInCourse(courseId);
     }
 
+    /**
+     * Load students by ID through the second-level cache, querying only for the misses
+     */
+    private List<Student> loadStudents(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Student.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     /**
      * Delete student by ID
      */
+    @RetryOnConflict
     public void deleteStudent(Long id) {
-        if (!studentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Student not found with ID: " + id);
-        }
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + id));
         
-        studentRepository.deleteById(id);
+        // Release the student's seats so waitlisted students are promoted
+        enrollmentService.withdrawStudent(id);
+        studentRepository.delete(student);
+        eventPublisher.publishEvent(new StudentDeletedEvent(id, student.getEmail()));
     }
 
     /**
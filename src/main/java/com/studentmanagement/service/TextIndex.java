@@ -0,0 +1,276 @@
+package com.studentmanagement.service;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory n-gram index over the title and detail text of a set of records.
+ *
+ * Every trigram of the normalised text maps to a bitmap of record IDs. So do
+ * the one- to three-character prefixes of each field and of each word in it,
+ * kept apart per field. A query intersects the trigram bitmaps to find the
+ * candidates, then splits them into rank tiers with the prefix bitmaps:
+ * title prefix, detail prefix, title word, detail word, anywhere. Within a
+ * tier records are ordered by ID, so a page is read straight off the bitmaps.
+ *
+ * Queries of up to three characters are answered by the bitmaps alone; longer
+ * ones are verified against the stored text as results are taken. Queries
+ * shorter than three characters match word prefixes only.
+ *
+ * Not thread-safe; callers guard it with a lock.
+ */
+class TextIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Gram kinds, packed into the top bits of a posting key
+     */
+    private static final int ANYWHERE = 0;
+    private static final int TITLE_START = 1;
+    private static final int DETAIL_START = 2;
+    private static final int TITLE_WORD = 3;
+    private static final int DETAIL_WORD = 4;
+
+    /**
+     * Rank tiers, best first; records in none of them form the last tier
+     */
+    private static final int[] TIERS = {TITLE_START, DETAIL_START, TITLE_WORD, DETAIL_WORD};
+
+    /**
+     * Long queries count their matches exactly only up to this many candidates
+     */
+    private static final int MAX_VERIFIED_COUNT = 10_000;
+
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    /**
+     * Add a record, replacing any previous text for its ID
+     */
+    void put(int id, String title, String detail) {
+        remove(id);
+        Entry entry = new Entry(normalize(title), normalize(detail));
+        entries.put(id, entry);
+        for (long key : entry.keys()) {
+            postings.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (long key : entry.keys()) {
+            RoaringBitmap ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find the records containing the query, best matches first.
+     * Tiers are only computed until the requested page is full.
+     *
+     * @return the IDs of the requested slice of the ranking, and the total number of matches
+     */
+    Result search(String query, int offset, int limit) {
+        String normalized = normalize(query);
+        RoaringBitmap candidates = normalized.isEmpty() ? null : candidates(normalized);
+        if (candidates == null || candidates.isEmpty()) {
+            return new Result(List.of(), 0, true);
+        }
+
+        boolean verify = normalized.length() > GRAM_LENGTH;
+        String prefix = normalized.substring(0, Math.min(GRAM_LENGTH, normalized.length()));
+        List<Long> ids = new ArrayList<>(limit);
+        RoaringBitmap ranked = new RoaringBitmap();
+        int skip = offset;
+        for (int t = 0; t <= TIERS.length && ids.size() < limit; t++) {
+            RoaringBitmap tier = t < TIERS.length
+                    ? RoaringBitmap.and(candidates, posting(TIERS[t], prefix))
+                    : candidates.clone();
+            tier.andNot(ranked);
+            ranked.or(tier);
+            skip = verify ? collectVerified(tier, normalized, skip, limit, ids) : collect(tier, skip, limit, ids);
+        }
+
+        if (!verify) {
+            return new Result(ids, candidates.getCardinality(), true);
+        }
+        if (candidates.getCardinality() > MAX_VERIFIED_COUNT) {
+            return new Result(ids, candidates.getCardinality(), false);
+        }
+        int total = 0;
+        IntIterator iterator = candidates.getIntIterator();
+        while (iterator.hasNext()) {
+            if (entries.get(iterator.next()).contains(normalized)) {
+                total++;
+            }
+        }
+        return new Result(ids, total, true);
+    }
+
+    /**
+     * Records holding every gram of the query, the smallest posting lists intersected first
+     */
+    private RoaringBitmap candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return RoaringBitmap.or(posting(TITLE_WORD, query), posting(DETAIL_WORD, query));
+        }
+        List<RoaringBitmap> lists = new ArrayList<>();
+        for (long key : trigrams(query)) {
+            RoaringBitmap ids = postings.get(key);
+            if (ids == null) {
+                return null;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Take IDs off a tier whose records all match, after skipping {@code skip} of them
+     *
+     * @return how many more IDs later tiers must skip
+     */
+    private static int collect(RoaringBitmap tier, int skip, int limit, List<Long> ids) {
+        int size = tier.getCardinality();
+        if (skip >= size) {
+            return skip - size;
+        }
+        for (int i = skip; i < size && ids.size() < limit; i++) {
+            ids.add((long) tier.select(i));
+        }
+        return 0;
+    }
+
+    /**
+     * Take IDs off a tier whose records may not all match, checking each against its text
+     *
+     * @return how many more matches later tiers must skip
+     */
+    private int collectVerified(RoaringBitmap tier, String query, int skip, int limit, List<Long> ids) {
+        IntIterator iterator = tier.getIntIterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            int id = iterator.next();
+            if (entries.get(id).contains(query)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add((long) id);
+                }
+            }
+        }
+        return skip;
+    }
+
+    private RoaringBitmap posting(int kind, String text) {
+        RoaringBitmap ids = postings.get(key(kind, text, 0, text.length()));
+        return ids != null ? ids : new RoaringBitmap();
+    }
+
+    /**
+     * Lower-case the text, strip accents and collapse whitespace
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            keys.add(key(ANYWHERE, text, i, GRAM_LENGTH));
+        }
+        return keys;
+    }
+
+    /**
+     * Add the one- to three-character prefixes starting at a position
+     */
+    private static void addPrefixes(int kind, String text, int start, Set<Long> keys) {
+        for (int length = 1; length <= GRAM_LENGTH && start + length <= text.length(); length++) {
+            keys.add(key(kind, text, start, length));
+        }
+    }
+
+    private static void addFieldKeys(String text, int startKind, int wordKind, Set<Long> keys) {
+        addPrefixes(startKind, text, 0, keys);
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                addPrefixes(wordKind, text, i, keys);
+            }
+        }
+    }
+
+    /**
+     * Pack the gram kind, its length and up to three chars into one key
+     */
+    private static long key(int kind, String text, int start, int length) {
+        long key = ((long) kind << 2) | length;
+        for (int i = start; i < start + length; i++) {
+            key = (key << 16) | text.charAt(i);
+        }
+        return key << (16 * (GRAM_LENGTH - length));
+    }
+
+    private record Entry(String title, String detail) {
+
+        Set<Long> keys() {
+            Set<Long> keys = trigrams(title);
+            keys.addAll(trigrams(detail));
+            addFieldKeys(title, TITLE_START, TITLE_WORD, keys);
+            addFieldKeys(detail, DETAIL_START, DETAIL_WORD, keys);
+            return keys;
+        }
+
+        boolean contains(String query) {
+            return title.contains(query) || detail.contains(query);
+        }
+    }
+
+    /**
+     * One slice of a ranking. For long queries with very many candidates the
+     * total is the candidate count, an upper bound, and {@code exact} is false.
+     */
+    record Result(List<Long> ids, int total, boolean exact) {
+    }
+}
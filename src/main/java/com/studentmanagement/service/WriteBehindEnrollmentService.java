@@ -0,0 +1,399 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.EnrollmentJournalProperties;
+import com.studentmanagement.dto.EnrollmentOutcome;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.event.EnrollmentQueuedEvent;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import com.studentmanagement.service.EnrollmentJournal.Entry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Write-behind path for single enrollment changes, enabled with
+ * {@code app.enrollment-journal.enabled}.
+ *
+ * A change is acknowledged once it has been appended to the
+ * {@link EnrollmentJournal} and forced to disk. A background flusher applies
+ * pending changes in one transaction per batch, grouped by course, through the
+ * bulk methods of {@link EnrollmentService}; an enroll and unenroll of the same
+ * pair that are both still pending cancel out and never reach the database.
+ * After each batch the journal is compacted down to what is still pending.
+ * On startup, whatever the journal holds is queued again: replaying the last
+ * change of each pair is idempotent, whether or not it had been applied.
+ *
+ * Courses with a capacity always take the synchronous path, since seats and
+ * the waitlist have to be decided when the request is made. Pending changes
+ * show up in the student's enrolled and available course lists, whole or
+ * paged, but not in course rosters or bulk requests.
+ */
+@Service
+public class WriteBehindEnrollmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindEnrollmentService.class);
+
+    private final EnrollmentService enrollmentService;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EnrollmentJournalProperties properties;
+    private final EnrollmentJournal journal;
+    private final Counter applied;
+    private final Counter cancelled;
+
+    /**
+     * Changes not yet picked up by the flusher, by student ID and course ID; true to enroll
+     */
+    private final Map<Long, Map<Long, Boolean>> pending = new LinkedHashMap<>();
+
+    /**
+     * Changes of the batch the flusher is applying, overridden by pending ones
+     */
+    private final Map<Long, Map<Long, Boolean>> inFlight = new LinkedHashMap<>();
+
+    private int pendingCount;
+    private int inFlightCount;
+
+    /**
+     * Held by whoever is flushing, so the shutdown flush cannot overlap a scheduled one
+     */
+    private final Object flushLock = new Object();
+
+    public WriteBehindEnrollmentService(EnrollmentService enrollmentService, StudentRepository studentRepository,
+                                        CourseRepository courseRepository, TransactionTemplate transactionTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        EnrollmentJournalProperties properties, MeterRegistry meterRegistry) {
+        this.enrollmentService = enrollmentService;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.journal = properties.isEnabled() ? openJournal() : null;
+
+        Gauge.builder("enrollment.journal.pending", this, WriteBehindEnrollmentService::backlog)
+                .description("Journaled enrollment changes not yet written to the database")
+                .register(meterRegistry);
+        this.applied = Counter.builder("enrollment.journal.applied")
+                .description("Journaled enrollment changes written to the database")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("enrollment.journal.cancelled")
+                .description("Journaled enrollment changes that cancelled each other out before being written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enroll a student in a course. Courses without a capacity are only journaled;
+     * others are enrolled right away and may waitlist the student.
+     */
+    public EnrollmentOutcome enroll(Long studentId, Long courseId) {
+        if (!journaled(studentId, courseId)) {
+            return enrollmentService.enroll(studentId, courseId);
+        }
+        return record(studentId, courseId, true) ? EnrollmentOutcome.ENROLLED : EnrollmentOutcome.ALREADY_ENROLLED;
+    }
+
+    /**
+     * Unenroll a student from a course. Courses without a capacity are only journaled;
+     * others are unenrolled right away, freeing the seat for the waitlist.
+     */
+    public EnrollmentOutcome unenroll(Long studentId, Long courseId) {
+        if (!journaled(studentId, courseId)) {
+            return enrollmentService.unenroll(studentId, courseId);
+        }
+        return record(studentId, courseId, false) ? EnrollmentOutcome.UNENROLLED : EnrollmentOutcome.NOT_ENROLLED;
+    }
+
+    /**
+     * Apply a student's pending changes to course IDs read from the database
+     *
+     * @param courseIds IDs of courses in ascending order
+     * @param enrolled  whether {@code courseIds} are the student's enrolled courses or the ones they are not in
+     * @return the IDs as they will be once pending changes are written, in ascending order
+     */
+    public List<Long> withPending(Long studentId, List<Long> courseIds, boolean enrolled) {
+        return withPending(studentId, courseIds, enrolled, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * Apply a student's pending changes to one keyset page of course IDs. Pending additions
+     * outside the page's range belong to other pages and are left out.
+     *
+     * @param after the page's cursor
+     * @param until last ID the page's query read, or null if it read to the end
+     */
+    public List<Long> withPending(Long studentId, List<Long> courseIds, boolean enrolled, long after, Long until) {
+        Map<Long, Boolean> changes;
+        synchronized (this) {
+            if (pendingCount + inFlightCount == 0) {
+                return courseIds;
+            }
+            changes = new TreeMap<>(inFlight.getOrDefault(studentId, Map.of()));
+            changes.putAll(pending.getOrDefault(studentId, Map.of()));
+        }
+        if (changes.isEmpty()) {
+            return courseIds;
+        }
+        TreeSet<Long> result = new TreeSet<>(courseIds);
+        changes.forEach((courseId, enroll) -> {
+            if (enroll == enrolled) {
+                if (courseId > after && (until == null || courseId <= until)) {
+                    result.add(courseId);
+                }
+            } else {
+                result.remove(courseId);
+            }
+        });
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Write a batch of pending changes to the database
+     */
+    @Scheduled(initialDelayString = "${app.enrollment-journal.flush-interval:PT0.2S}",
+               fixedDelayString = "${app.enrollment-journal.flush-interval:PT0.2S}")
+    public void flush() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<Long, Map<Long, Boolean>> batch = takeBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(batch));
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} journaled enrollment changes; retrying with the next batch",
+                        inFlightCount, e);
+                synchronized (this) {
+                    requeueInFlight();
+                }
+                return;
+            }
+            synchronized (this) {
+                applied.increment(inFlightCount);
+                inFlight.clear();
+                inFlightCount = 0;
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Write everything still pending before the application stops. Runs on context close,
+     * before any bean is destroyed, so listeners of the resulting events are still there.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        if (journal == null) {
+            return;
+        }
+        for (int attempt = 0; attempt < 3 && backlog() > 0; attempt++) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        synchronized (this) {
+            if (backlog() > 0) {
+                log.warn("{} enrollment changes left in the journal; they are applied on the next startup", backlog());
+            }
+            journal.close();
+        }
+    }
+
+    /**
+     * Whether a change goes through the journal, after checking that both sides exist
+     */
+    private boolean journaled(Long studentId, Long courseId) {
+        if (journal == null) {
+            return false;
+        }
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("Course not found"));
+        if (course.getCapacity() != null) {
+            return false;
+        }
+        if (!studentRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found");
+        }
+        return true;
+    }
+
+    /**
+     * Journal a change unless the student is already in the requested state
+     *
+     * @return whether the change was recorded
+     */
+    private boolean record(Long studentId, Long courseId, boolean enroll) {
+        // Read outside the lock; a batch committing meanwhile at worst journals a no-op
+        boolean enrolledNow = !courseRepository.findIdsEnrolledByStudent(studentId, List.of(courseId)).isEmpty();
+        synchronized (this) {
+            Boolean queued = pending.getOrDefault(studentId, Map.of()).get(courseId);
+            if (queued == null) {
+                queued = inFlight.getOrDefault(studentId, Map.of()).get(courseId);
+            }
+            if ((queued != null ? queued : enrolledNow) == enroll) {
+                return false;
+            }
+            append(new Entry(studentId, courseId, enroll));
+            Map<Long, Boolean> changes = pending.computeIfAbsent(studentId, id -> new LinkedHashMap<>());
+            // Anything pending for the pair is the opposite change, not yet applied
+            if (changes.remove(courseId) != null) {
+                pendingCount--;
+                cancelled.increment(2);
+                if (changes.isEmpty()) {
+                    pending.remove(studentId);
+                }
+            } else {
+                changes.put(courseId, enroll);
+                pendingCount++;
+            }
+        }
+        eventPublisher.publishEvent(new EnrollmentQueuedEvent(studentId, courseId, enroll));
+        return true;
+    }
+
+    private void append(Entry entry) {
+        if (journal.append(entry)) {
+            return;
+        }
+        compact();
+        if (!journal.append(entry)) {
+            throw new IllegalStateException("Too many enrollment changes are waiting to be saved; please try again shortly");
+        }
+    }
+
+    /**
+     * Rewrite the journal with just the changes not yet applied
+     */
+    private void compact() {
+        List<Entry> entries = new ArrayList<>(inFlightCount + pendingCount);
+        addEntries(inFlight, entries);
+        addEntries(pending, entries);
+        if (!journal.rewrite(entries)) {
+            log.warn("Enrollment journal cannot hold the {} pending changes; raise app.enrollment-journal.size",
+                    entries.size());
+        }
+    }
+
+    /**
+     * Move up to {@code max-batch} pending changes, whole students at a time, into the in-flight batch
+     */
+    private synchronized Map<Long, Map<Long, Boolean>> takeBatch() {
+        Iterator<Map.Entry<Long, Map<Long, Boolean>>> students = pending.entrySet().iterator();
+        while (students.hasNext() && inFlightCount < properties.getMaxBatch()) {
+            Map.Entry<Long, Map<Long, Boolean>> student = students.next();
+            inFlight.put(student.getKey(), student.getValue());
+            inFlightCount += student.getValue().size();
+            pendingCount -= student.getValue().size();
+            students.remove();
+        }
+        return inFlight;
+    }
+
+    /**
+     * Apply a batch course by course, in ascending course ID order like every other seat update,
+     * unenrolling before enrolling so freed seats are counted first
+     */
+    private void apply(Map<Long, Map<Long, Boolean>> batch) {
+        Map<Long, List<Long>> enrolls = new TreeMap<>();
+        Map<Long, List<Long>> unenrolls = new TreeMap<>();
+        batch.forEach((studentId, changes) -> changes.forEach((courseId, enroll) ->
+                (enroll ? enrolls : unenrolls).computeIfAbsent(courseId, id -> new ArrayList<>()).add(studentId)));
+
+        TreeSet<Long> courseIds = new TreeSet<>(enrolls.keySet());
+        courseIds.addAll(unenrolls.keySet());
+        // Changes to courses deleted since they were journaled are dropped
+        courseIds.retainAll(courseRepository.findExistingIds(courseIds));
+        for (Long courseId : courseIds) {
+            List<Long> leaving = unenrolls.get(courseId);
+            if (leaving != null) {
+                enrollmentService.unenrollStudents(courseId, leaving);
+            }
+            List<Long> joining = enrolls.get(courseId);
+            if (joining != null) {
+                enrollmentService.enrollStudents(courseId, joining);
+            }
+        }
+    }
+
+    /**
+     * Put a batch that failed to commit back in front of the changes queued since
+     */
+    private void requeueInFlight() {
+        inFlight.forEach((studentId, changes) -> changes.forEach((courseId, enroll) -> {
+            Map<Long, Boolean> newer = pending.computeIfAbsent(studentId, id -> new LinkedHashMap<>());
+            if (newer.remove(courseId) != null) {
+                pendingCount--;
+                cancelled.increment(2);
+                if (newer.isEmpty()) {
+                    pending.remove(studentId);
+                }
+            } else {
+                newer.put(courseId, enroll);
+                pendingCount++;
+            }
+        }));
+        inFlight.clear();
+        inFlightCount = 0;
+    }
+
+    private synchronized int backlog() {
+        return pendingCount + inFlightCount;
+    }
+
+    private EnrollmentJournal openJournal() {
+        try {
+            EnrollmentJournal opened = new EnrollmentJournal(properties.getDirectory(),
+                    Math.toIntExact(properties.getSize().toBytes()));
+            // The last change of each pair wins; earlier ones may or may not have been applied
+            for (Entry entry : opened.recovered()) {
+                Map<Long, Boolean> changes = pending.computeIfAbsent(entry.studentId(), id -> new LinkedHashMap<>());
+                if (changes.put(entry.courseId(), entry.enrolled()) == null) {
+                    pendingCount++;
+                }
+            }
+            if (pendingCount > 0) {
+                log.info("Recovered {} enrollment changes from the journal in {}", pendingCount,
+                        properties.getDirectory());
+            }
+            return opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the enrollment journal in " + properties.getDirectory(), e);
+        }
+    }
+
+    private static void addEntries(Map<Long, Map<Long, Boolean>> changes, Collection<Entry> entries) {
+        changes.forEach((studentId, courses) -> courses.forEach((courseId, enroll) ->
+                entries.add(new Entry(studentId, courseId, enroll))));
+    }
+}
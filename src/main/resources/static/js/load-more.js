@@ -0,0 +1,22 @@
+// "Load more" buttons of the paged rosters and course lists: each fetches the next
+// page as an HTML fragment, which replaces the button and brings its own for the page after.
+document.addEventListener('click', function (event) {
+    var button = event.target.closest('[data-load-more]');
+    if (!button) {
+        return;
+    }
+    button.disabled = true;
+    fetch(button.getAttribute('data-load-more'), {headers: {'Accept': 'text/html'}})
+        .then(function (response) {
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            return response.text();
+        })
+        .then(function (html) {
+            button.closest('.load-more').outerHTML = html;
+        })
+        .catch(function () {
+            button.disabled = false;
+        });
+});
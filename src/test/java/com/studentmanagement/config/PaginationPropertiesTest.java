@@ -0,0 +1,24 @@
+package com.studentmanagement.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaginationPropertiesTest {
+
+    @Test
+    void configuredDefaultIsOffered() {
+        PaginationProperties properties = new PaginationProperties();
+        properties.setDefaultSize(25);
+
+        assertThat(properties.sizeOptions(properties.resolveSize(null))).containsExactly(10, 20, 25, 50, 100);
+    }
+
+    @Test
+    void optionsStopAtTheMaximumButKeepTheSizeInUse() {
+        PaginationProperties properties = new PaginationProperties();
+        properties.setMaxSize(40);
+
+        assertThat(properties.sizeOptions(properties.resolveSize(40))).containsExactly(10, 20, 40);
+    }
+}
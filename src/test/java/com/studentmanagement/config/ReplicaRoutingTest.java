@@ -0,0 +1,140 @@
+package com.studentmanagement.config;
+
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.service.CourseLookupService;
+import com.studentmanagement.service.CourseService;
+import com.studentmanagement.service.EnrollmentService;
+import com.studentmanagement.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Keeping the data of a lagging replica out of the caches and page validators. The replica is
+ * a separate database copied from the primary before each test and never updated afterwards.
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "spring.datasource.url=jdbc:h2:mem:laggingprimary", "app.cache.manager-name=lagging-replica",
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        // Its heartbeat is as old as the copy, so it keeps taking reads however far behind it falls
+        "app.datasource.routing.max-lag=PT1H"})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:laggingreplica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaRoutingConfig replicaRoutingConfig;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseLookupService courseLookupService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Student student;
+    private Long courseId;
+
+    @BeforeEach
+    void createCourseAndCopyToReplica() throws SQLException {
+        // The mock request bound to the test thread would send its reads to the primary after the writes below
+        RequestContextHolder.resetRequestAttributes();
+        student = studentService.createStudent(new Student("Replicated Student",
+                "replicated" + System.nanoTime() + "@replica.example"));
+        courseId = courseService.createCourse(new Course("Replicated Course", "Replicated")).getId();
+        copyPrimaryToReplica();
+        replicaRoutingConfig.checkReplicas();
+
+        enrollmentService.enroll(student.getId(), courseId);
+    }
+
+    @Test
+    void replicaReadsLeaveNothingInTheCaches() {
+        // Outside a request nothing asks for the primary, so this reads the replica's copy from before the enrollment
+        assertThat(courseService.getCourseById(courseId)).get().extracting(Course::getEnrolledCount).isEqualTo(0);
+        assertThat(courseLookupService.getEnrolledCourseIds(student.getId())).isEmpty();
+
+        assertThat(entityManagerFactory.getCache().contains(Course.class, courseId)).isFalse();
+        assertThat(cacheManager.getCache(CacheConfig.STUDENT_ENROLLMENTS).get(student.getId())).isNull();
+
+        // Read-write transactions use the primary, whose results are cached and then served to replica readers
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        Set<Long> enrolled = primary.execute(status -> courseLookupService.getEnrolledCourseIds(student.getId()));
+        assertThat(enrolled).containsExactly(courseId);
+        primary.executeWithoutResult(status -> courseService.getCourseById(courseId));
+        assertThat(courseService.getCourseById(courseId)).get().extracting(Course::getEnrolledCount).isEqualTo(1);
+        assertThat(courseLookupService.getEnrolledCourseIds(student.getId())).containsExactly(courseId);
+    }
+
+    @Test
+    void pageWithValidatorsIsReadFromThePrimary() throws Exception {
+        MockHttpServletResponse page = mockMvc.perform(get("/courses/{id}", courseId)).andReturn().getResponse();
+
+        assertThat(page.getStatus()).isEqualTo(200);
+        assertThat(page.getContentAsString()).doesNotContain("No students enrolled").contains(student.getName());
+        // The tag now stands for the body just served, and the cache it filled holds the current course
+        String etag = page.getHeader(HttpHeaders.ETAG);
+        assertThat(mockMvc.perform(get("/courses/{id}", courseId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse().getStatus()).isEqualTo(304);
+        assertThat(courseService.getCourseById(courseId)).get().extracting(Course::getEnrolledCount).isEqualTo(1);
+    }
+
+    /**
+     * Replace the replica's database with a copy of the primary's as it is now
+     */
+    private void copyPrimaryToReplica() throws SQLException {
+        List<String> script = jdbcTemplate.queryForList("SCRIPT", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.studentmanagement.controller;
+
+import com.studentmanagement.config.MonitoringProperties;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.monitoring.QueryBudget;
+import com.studentmanagement.monitoring.SqlStatementCounter;
+import com.studentmanagement.service.CourseService;
+import com.studentmanagement.service.EnrollmentService;
+import com.studentmanagement.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Renders every budgeted handler against enrolled, waitlisted and multi-page
+ * data, with the budgets enforced in fail mode, and checks each request
+ * stayed within its {@link QueryBudget}. Handlers exempt from the check are
+ * still exercised, and the bulk endpoints are checked to scale per course
+ * rather than per row.
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    private static final int ROSTER = 30;
+    private static final int SCHEDULE = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private MonitoringProperties monitoringProperties;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Set<Method> exercised = new HashSet<>();
+
+    @Test
+    void everyBudgetedHandlerStaysWithinItsBudget() throws Exception {
+        Long seminar = createCourse("Budget Seminar", 3);
+        Long lecture = createCourse("Budget Lecture", null);
+        List<Long> roster = createStudents("roster", ROSTER);
+        enrollmentService.enrollStudents(seminar, roster.subList(0, 8));
+        enrollmentService.enrollStudents(lecture, roster);
+        Long busy = roster.get(0);
+        List<Long> schedule = new ArrayList<>();
+        for (int i = 0; i < SCHEDULE; i++) {
+            schedule.add(createCourse("Budget Elective " + i, null));
+        }
+        enrollmentService.enrollInCourses(busy, schedule);
+        Long waiting = roster.get(5);
+
+        check(get("/"));
+        check(get("/students"));
+        check(get("/students").param("q", "roster"));
+        check(get("/students/{id}", busy));
+        check(get("/students/new"));
+        check(get("/students/{id}/edit", busy));
+        check(get("/courses"));
+        check(get("/courses").param("q", "Budget"));
+        check(get("/courses/{id}", seminar));
+        check(get("/courses/{id}", lecture));
+        check(get("/courses/{id}/roster", lecture).param("after", roster.get(9).toString()));
+        check(get("/courses/new"));
+        check(get("/courses/{id}/edit", seminar));
+        check(get("/enrollments/student/{id}", busy));
+        check(get("/enrollments/student/{id}", waiting));
+        check(get("/enrollments/student/{id}/enrolled", busy).param("after", schedule.get(9).toString()));
+        check(get("/enrollments/student/{id}/available", waiting).param("after", "0"));
+        check(get("/search/students").param("q", "roster"));
+        check(get("/search/courses").param("q", "Budget"));
+        check(get("/api/v1/students").param("embed", "enrollments"));
+        check(get("/api/v1/students/{id}", busy).param("embed", "enrollments"));
+        check(get("/api/v1/students/{id}/enrollments", busy));
+        check(get("/api/v1/courses").param("embed", "enrollments"));
+        check(get("/api/v1/courses/{id}", lecture).param("embed", "enrollments"));
+        check(get("/api/v1/courses/{id}/enrollments", lecture));
+        check(get("/changes").param("courseId", seminar.toString()).accept(MediaType.TEXT_EVENT_STREAM));
+
+        Long newcomer = createStudents("newcomer", 1).get(0);
+        check(post("/students").param("name", "Budget Student").param("email", "budget.student@test.example"));
+        check(post("/students/{id}", busy).param("name", "Busy Student").param("email", "busy@test.example")
+                .param("version", version("students", busy).toString()));
+        check(post("/courses").param("name", "Budget Workshop").param("description", "Created in a request"));
+        check(post("/courses/{id}", seminar).param("name", "Budget Seminar").param("capacity", "4")
+                .param("version", version("courses", seminar).toString()));
+        check(post("/enrollments/student/{s}/enroll/{c}", newcomer, seminar));
+        check(post("/enrollments/student/{s}/unenroll/{c}", roster.get(0), seminar));
+        check(post("/enrollments/course/{id}/enroll", lecture).contentType(MediaType.APPLICATION_JSON)
+                .content(json(List.of(newcomer))));
+        check(post("/enrollments/course/{id}/unenroll", lecture).contentType(MediaType.APPLICATION_JSON)
+                .content(json(List.of(newcomer))));
+        check(post("/enrollments/student/{id}/enroll", newcomer).contentType(MediaType.APPLICATION_JSON)
+                .content(json(schedule)));
+        check(post("/enrollments/student/{id}/unenroll", newcomer).contentType(MediaType.APPLICATION_JSON)
+                .content(json(schedule)));
+        check(post("/courses/{id}/delete", createCourse("Budget Retired", null)));
+        check(post("/students/{id}/delete", busy));
+
+        Set<String> unchecked = handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.hasMethodAnnotation(QueryBudget.class))
+                .filter(handler -> !exercised.contains(handler.getMethod()))
+                .map(HandlerMethod::getShortLogMessage)
+                .collect(Collectors.toSet());
+        assertThat(unchecked).as("budgeted handlers this suite never requested").isEmpty();
+    }
+
+    @Test
+    void courseSideBulkCostDoesNotGrowWithStudents() throws Exception {
+        List<Long> students = createStudents("bulk", 200);
+        Long small = createCourse("Bulk Small", 10);
+        Long large = createCourse("Bulk Large", 100);
+
+        long enrollFew = statements(post("/enrollments/course/{id}/enroll", small)
+                .contentType(MediaType.APPLICATION_JSON).content(json(students.subList(0, 20))));
+        long enrollMany = statements(post("/enrollments/course/{id}/enroll", large)
+                .contentType(MediaType.APPLICATION_JSON).content(json(students)));
+        assertThat(enrollMany).isEqualTo(enrollFew);
+
+        long unenrollFew = statements(post("/enrollments/course/{id}/unenroll", small)
+                .contentType(MediaType.APPLICATION_JSON).content(json(students.subList(0, 20))));
+        long unenrollMany = statements(post("/enrollments/course/{id}/unenroll", large)
+                .contentType(MediaType.APPLICATION_JSON).content(json(students)));
+        assertThat(unenrollMany).isEqualTo(unenrollFew);
+    }
+
+    @Test
+    void studentSideBulkCostGrowsOnlyPerCourse() throws Exception {
+        Long student = createStudents("schedule", 1).get(0);
+        List<Long> courses = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            courses.add(createCourse("Schedule Course " + i, i % 2 == 0 ? 5 : null));
+        }
+
+        long enrollFew = statements(post("/enrollments/student/{id}/enroll", student)
+                .contentType(MediaType.APPLICATION_JSON).content(json(courses.subList(0, 10))));
+        long enrollMany = statements(post("/enrollments/student/{id}/enroll", student)
+                .contentType(MediaType.APPLICATION_JSON).content(json(courses.subList(10, 40))));
+        assertThat(enrollMany - enrollFew).isLessThanOrEqualTo(20L);
+
+        long unenrollFew = statements(post("/enrollments/student/{id}/unenroll", student)
+                .contentType(MediaType.APPLICATION_JSON).content(json(courses.subList(0, 10))));
+        long unenrollMany = statements(post("/enrollments/student/{id}/unenroll", student)
+                .contentType(MediaType.APPLICATION_JSON).content(json(courses.subList(10, 40))));
+        assertThat(unenrollMany - unenrollFew).isLessThanOrEqualTo(3L * 20);
+    }
+
+    @Test
+    void overBudgetRequestIsRolledBack() throws Exception {
+        Long courseId = createCourse("Budget Overrun", 5);
+        Long studentId = createStudents("overrun", 1).get(0);
+        String pattern = "POST /enrollments/student/{studentId}/enroll/{courseId}";
+        monitoringProperties.getQueryBudgets().put(pattern, 3);
+        try {
+            MvcResult result = mockMvc.perform(post("/enrollments/student/{s}/enroll/{c}", studentId, courseId))
+                    .andReturn();
+            assertThat((String) result.getFlashMap().get("errorMessage")).contains("budget of 3");
+        } finally {
+            monitoringProperties.getQueryBudgets().remove(pattern);
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_courses WHERE course_id = ?",
+                Integer.class, courseId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT enrolled_count FROM courses WHERE id = ?",
+                Integer.class, courseId)).isZero();
+    }
+
+    private void check(RequestBuilder request) throws Exception {
+        long before = sqlStatementCounter.count();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        long statements = sqlStatementCounter.count() - before;
+
+        String description = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertThat(result.getResponse().getStatus()).as(description).isLessThan(400);
+        assertThat(result.getFlashMap().get("errorMessage")).as(description).isNull();
+        assertThat(result.getHandler()).as(description).isInstanceOf(HandlerMethod.class);
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        assertThat(budget).as(description).isNotNull();
+        if (budget.value() != QueryBudget.UNBOUNDED) {
+            assertThat(statements).as(description).isLessThanOrEqualTo(budget.value());
+        }
+        exercised.add(handler.getMethod());
+    }
+
+    private long statements(RequestBuilder request) throws Exception {
+        long before = sqlStatementCounter.count();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        return sqlStatementCounter.count() - before;
+    }
+
+    private Long createCourse(String name, Integer capacity) {
+        Course course = new Course(name, "Query budget fixture");
+        course.setCapacity(capacity);
+        return courseService.createCourse(course).getId();
+    }
+
+    private List<Long> createStudents(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(studentService.createStudent(new Student("Student " + i, prefix + i + "@test.example")).getId());
+        }
+        return ids;
+    }
+
+    private Long version(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    private static String json(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.studentmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void everyAddedValueIsFound() {
+        BloomFilter filter = new BloomFilter(ENTRIES, FALSE_POSITIVE_RATE);
+        IntStream.range(0, ENTRIES).forEach(i -> filter.put(email(i)));
+
+        assertThat(IntStream.range(0, ENTRIES).filter(i -> !filter.mightContain(email(i))).count()).isZero();
+        assertThat(filter.insertions()).isEqualTo(ENTRIES);
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(ENTRIES, FALSE_POSITIVE_RATE);
+        IntStream.range(0, ENTRIES).forEach(i -> filter.put(email(i)));
+
+        long falsePositives = IntStream.range(ENTRIES, 2 * ENTRIES).filter(i -> filter.mightContain(email(i))).count();
+
+        assertThat((double) falsePositives / ENTRIES).isLessThan(2 * FALSE_POSITIVE_RATE);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(FALSE_POSITIVE_RATE / 2, 2 * FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    void concurrentAddsAreAllKept() throws Exception {
+        int threads = 8;
+        BloomFilter filter = new BloomFilter(ENTRIES, FALSE_POSITIVE_RATE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> IntStream.range(0, ENTRIES)
+                        .filter(i -> i % threads == thread)
+                        .forEach(i -> filter.put(email(i)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(IntStream.range(0, ENTRIES).filter(i -> !filter.mightContain(email(i))).count()).isZero();
+        assertThat(filter.insertions()).isEqualTo(ENTRIES);
+    }
+
+    private static String email(int i) {
+        return "student" + i + "@example.com";
+    }
+}
@@ -0,0 +1,131 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.ImportReport;
+import com.studentmanagement.dto.ImportRowError;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Importing students and courses in batches, and falling back to row by row inserts on a duplicate email
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentEmailFilter studentEmailFilter;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Unique per test, so the emails of one test never collide with another's
+     */
+    private String domain;
+
+    @BeforeEach
+    void createDomain() {
+        domain = "@import" + System.nanoTime() + ".example";
+    }
+
+    @Test
+    void validRowsAreImportedAndInvalidOnesReported() throws IOException {
+        studentService.createStudent(new Student("Existing Student", "existing" + domain));
+
+        ImportReport report = importStudents(DataFormat.CSV, String.join("\n",
+                "name,email",
+                "First Student,first" + domain,
+                "Broken Student,not-an-email",
+                "Second Student,second" + domain,
+                "Copied Student,first" + domain,
+                "Existing Again,existing" + domain));
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getFailedRows()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ImportRowError::getRow).containsExactlyInAnyOrder(2L, 4L, 5L);
+        assertThat(report.getErrors()).extracting(ImportRowError::getMessage)
+                .anyMatch(message -> message.contains("Duplicate email first" + domain + " in upload"))
+                .anyMatch(message -> message.contains("existing" + domain + " already exists"));
+        assertThat(emails()).containsExactlyInAnyOrder("existing" + domain, "first" + domain, "second" + domain);
+    }
+
+    @Test
+    void emailTakenBehindTheFiltersBackFallsBackToRowByRow() throws IOException {
+        // Written without an event, so the filter still rules the email out and the batch insert hits the constraint
+        BloomFilter filter = (BloomFilter) ReflectionTestUtils.getField(studentEmailFilter, "filter");
+        String taken = "taken" + domain;
+        for (int i = 0; filter.mightContain(taken); i++) {
+            taken = "taken" + i + domain;
+        }
+        jdbcTemplate.update("INSERT INTO students (id, name, email) VALUES (?, ?, ?)",
+                idAllocator.reserve("students", 1), "Taken Student", taken);
+        assertThat(studentEmailFilter.findExistingEmails(List.of(taken))).isEmpty();
+
+        ImportReport report = importStudents(DataFormat.NDJSON, String.join("\n",
+                "{\"name\": \"Before\", \"email\": \"before" + domain + "\"}",
+                "{\"name\": \"Clash\", \"email\": \"" + taken + "\"}",
+                "{\"name\": \"After\", \"email\": \"after" + domain + "\"}"));
+
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportRowError::getRow, ImportRowError::getMessage)
+                .containsExactly(tuple(2L, "Student with email " + taken + " already exists"));
+        assertThat(emails()).containsExactlyInAnyOrder(taken, "before" + domain, "after" + domain);
+        // The rows imported one by one still published their events
+        assertThat(studentEmailFilter.findExistingEmails(List.of("before" + domain, "after" + domain))).hasSize(2);
+    }
+
+    @Test
+    void coursesAreImportedWithFreshIds() throws IOException {
+        String description = "Imported" + domain;
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM courses", Long.class);
+
+        ImportReport report = bulkImportService.importCourses(input(String.join("\n",
+                "name,description",
+                "Imported One," + description,
+                "," + description,
+                "Imported Two," + description)), DataFormat.CSV);
+
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportRowError::getRow).containsExactly(2L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM courses WHERE description = ?", Long.class, description))
+                .hasSize(2)
+                .allMatch(id -> id > before);
+    }
+
+    private ImportReport importStudents(DataFormat format, String content) throws IOException {
+        return bulkImportService.importStudents(input(content), format);
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> emails() {
+        return jdbcTemplate.queryForList("SELECT email FROM students WHERE email LIKE ?", String.class, "%" + domain);
+    }
+}
@@ -0,0 +1,161 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.ChangeFeedProperties;
+import com.studentmanagement.controller.ChangeFeedController;
+import com.studentmanagement.event.CourseCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Resuming, resetting and dropping change feed clients, on a feed of the test's own
+ */
+class ChangeFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChangeFeed changeFeed;
+    private MockMvc mockMvc;
+    private long published;
+
+    @AfterEach
+    void closeFeed() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    void reconnectingClientResumesAfterItsLastEventId() throws Exception {
+        open(8, 64, 10);
+        publish(5);
+
+        MockHttpServletResponse resumed = connect(get("/changes").header("Last-Event-ID", "3"));
+        publish(1);
+
+        assertThat(awaitContent(resumed, content -> ids(content).size() == 3)).doesNotContain("event:reset");
+        assertThat(ids(resumed.getContentAsString())).containsExactly(4L, 5L, 6L);
+        // The header wins over the query parameter
+        MockHttpServletResponse both = connect(get("/changes").param("since", "0").header("Last-Event-ID", "5"));
+        assertThat(ids(awaitContent(both, content -> !ids(content).isEmpty()))).containsExactly(6L);
+    }
+
+    @Test
+    void filteredClientOnlyReceivesItsCourses() throws Exception {
+        open(8, 64, 10);
+        publish(4);
+
+        MockHttpServletResponse filtered = connect(get("/changes").param("courseId", "2", "4").param("since", "0"));
+
+        assertThat(ids(awaitContent(filtered, content -> ids(content).size() == 2))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void clientTooFarBehindOrAheadIsReset() throws Exception {
+        open(4, 64, 10);
+        publish(10);
+
+        // Only sequences 7 to 10 are still buffered, so resuming after 6 is the oldest that works
+        MockHttpServletResponse tooOld = connect(get("/changes").header("Last-Event-ID", "5"));
+        MockHttpServletResponse oldest = connect(get("/changes").header("Last-Event-ID", "6"));
+        MockHttpServletResponse ahead = connect(get("/changes").header("Last-Event-ID", "11"));
+
+        assertThat(awaitContent(tooOld, content -> content.contains("event:reset"))).doesNotContain("id:");
+        assertThat(ids(awaitContent(oldest, content -> ids(content).size() == 4))).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(oldest.getContentAsString()).doesNotContain("event:reset");
+        assertThat(awaitContent(ahead, content -> content.contains("event:reset"))).doesNotContain("id:");
+    }
+
+    @Test
+    void clientThatFallsBehindIsDroppedAndResumesWithoutGaps() throws Exception {
+        int changes = 10_000;
+        open(changes, 1, 10);
+        MockHttpServletResponse first = connect(get("/changes").param("since", "0"));
+
+        // Published far faster than the client's thread can send them through a one-notice queue
+        publish(changes);
+
+        String content = awaitContent(first, text -> text.contains("event:dropped"));
+        assertThat(meterRegistry.get("change.feed.dropped").counter().count()).isEqualTo(1);
+        List<Long> received = new ArrayList<>(ids(content));
+        long lastSeen = received.isEmpty() ? 0 : received.get(received.size() - 1);
+
+        MockHttpServletResponse resumed = connect(get("/changes").header("Last-Event-ID", Long.toString(lastSeen)));
+        received.addAll(ids(awaitContent(resumed, text -> ids(text).size() == changes - lastSeen)));
+
+        assertThat(received).isEqualTo(LongStream.rangeClosed(1, changes).boxed().toList());
+    }
+
+    @Test
+    void clientsBeyondTheLimitAreTurnedAway() throws Exception {
+        open(8, 64, 2);
+        connect(get("/changes"));
+        connect(get("/changes"));
+
+        MockHttpServletResponse refused = mockMvc.perform(get("/changes")).andReturn().getResponse();
+
+        assertThat(refused.getStatus()).isEqualTo(503);
+        assertThat(meterRegistry.get("change.feed.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    private void open(int bufferSize, int queueSize, int maxSubscribers) {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setBufferSize(bufferSize);
+        properties.setSubscriberQueueSize(queueSize);
+        properties.setMaxSubscribers(maxSubscribers);
+        changeFeed = new ChangeFeed(properties, meterRegistry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChangeFeedController(changeFeed)).build();
+    }
+
+    /**
+     * Publish changes to the next courses, numbered from 1 like the sequences
+     */
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            long courseId = ++published;
+            changeFeed.onCourseCreated(new CourseCreatedEvent(courseId, "Course " + courseId, "Feed"));
+        }
+    }
+
+    private MockHttpServletResponse connect(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> done) throws Exception {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        String content = response.getContentAsString();
+        while (!done.test(content)) {
+            assertThat(System.nanoTime()).as("waiting for events, received so far: %s", content).isLessThan(deadline);
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    private static List<Long> ids(String content) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = EVENT_ID.matcher(content);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+}
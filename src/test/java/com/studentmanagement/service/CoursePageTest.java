@@ -0,0 +1,73 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.KeysetPage;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paging a student's enrolled and available courses from the enrollment index
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class CoursePageTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesCoverEveryCourseOnceInOrder() {
+        Long studentId = studentService.createStudent(new Student("Paged Student", "paged@test.example")).getId();
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            courseIds.add(courseService.createCourse(new Course("Paged Course " + i, "Paged")).getId());
+        }
+        enrollmentService.enrollInCourses(studentId, List.of(courseIds.get(0), courseIds.get(1), courseIds.get(4),
+                courseIds.get(9)));
+        assertThat(enrollmentIndex.isReady()).isTrue();
+
+        assertThat(walk(studentId, true)).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT course_id FROM student_courses WHERE student_id = ? ORDER BY course_id", Long.class,
+                studentId));
+        assertThat(walk(studentId, false)).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT id FROM courses c WHERE NOT EXISTS (SELECT 1 FROM student_courses e "
+                        + "WHERE e.course_id = c.id AND e.student_id = ?) ORDER BY id", Long.class, studentId));
+    }
+
+    private List<Long> walk(Long studentId, boolean enrolled) {
+        List<Long> ids = new ArrayList<>();
+        Long after = null;
+        do {
+            KeysetPage<Course> page = enrolled
+                    ? courseService.getCoursePageByStudent(studentId, after, PAGE_SIZE)
+                    : courseService.getCoursePageNotEnrolledByStudent(studentId, after, PAGE_SIZE);
+            page.getItems().forEach(course -> ids.add(course.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,235 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.EnrollmentOutcome;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seat allocation under parallel enroll and unenroll calls against a capacity-limited course,
+ * and waitlist promotion racing students who leave. Each run logs the throughput it reached.
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc // same context as the web tests; the JCache manager is shared by the whole JVM
+class EnrollmentConcurrencyTest {
+
+    private static final int CAPACITY = 5;
+    private static final int STUDENTS = 12;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 2000;
+    private static final int RAISED_CAPACITY = 15;
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentConcurrencyTest.class);
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seatCountMatchesRowsAndNeverExceedsCapacity() throws Exception {
+        Long courseId = createCourse("Stress");
+        List<Long> studentIds = createStudents("stress", STUDENTS);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long studentId = studentIds.get(random.nextInt(studentIds.size()));
+                try {
+                    if (random.nextInt(4) == 0) {
+                        enrollmentService.unenrollStudents(courseId, studentIds.subList(0, random.nextInt(1, 4)));
+                    } else if (random.nextBoolean()) {
+                        enrollmentService.enroll(studentId, courseId);
+                    } else {
+                        enrollmentService.unenroll(studentId, courseId);
+                    }
+                } catch (OptimisticLockingFailureException e) {
+                    // Every retry lost the race; the request is rejected as a whole
+                }
+                return null;
+            });
+        }
+        runInParallel("Random enroll/unenroll on one course", tasks);
+
+        assertSeatsConsistent(courseId);
+    }
+
+    @Test
+    void promotionRacesWithLeavingTheWaitlistAndRaisingCapacity() throws Exception {
+        Long courseId = createCourse("Promotion race");
+        List<Long> studentIds = createStudents("promotion", 60);
+        enrollmentService.enrollStudents(courseId, studentIds);
+        List<Long> seated = studentIds.subList(0, CAPACITY);
+        List<Long> waiting = studentIds.subList(CAPACITY, studentIds.size());
+
+        Set<Long> left = ConcurrentHashMap.newKeySet();
+        Set<Long> deleted = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Long studentId : seated) {
+            tasks.add(() -> {
+                enrollmentService.unenroll(studentId, courseId);
+                return null;
+            });
+        }
+        for (int i = 0; i < waiting.size(); i++) {
+            Long studentId = waiting.get(i);
+            if (i % 3 == 0) {
+                tasks.add(() -> {
+                    // Promoted students leave by giving their seat up
+                    EnrollmentOutcome outcome = enrollmentService.unenroll(studentId, courseId);
+                    if (outcome == EnrollmentOutcome.LEFT_WAITLIST || outcome == EnrollmentOutcome.UNENROLLED) {
+                        left.add(studentId);
+                    }
+                    return null;
+                });
+            } else if (i % 3 == 1) {
+                tasks.add(() -> {
+                    studentService.deleteStudent(studentId);
+                    deleted.add(studentId);
+                    return null;
+                });
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                Course raised = new Course("Promotion race", "Capacity-limited course");
+                raised.setCapacity(RAISED_CAPACITY);
+                courseService.updateCourse(courseId, raised);
+                return null;
+            });
+        }
+        Collections.shuffle(tasks);
+        runInParallel("Promotion against waitlist exits and capacity raises", tasks);
+
+        List<Long> enrolled = jdbcTemplate.queryForList(
+                "SELECT student_id FROM student_courses WHERE course_id = ?", Long.class, courseId);
+        List<Long> stillWaiting = jdbcTemplate.queryForList(
+                "SELECT student_id FROM course_waitlist WHERE course_id = ?", Long.class, courseId);
+        assertThat(enrolled).doesNotContainAnyElementsOf(left).doesNotContainAnyElementsOf(deleted);
+        assertThat(stillWaiting).doesNotContainAnyElementsOf(left).doesNotContainAnyElementsOf(deleted);
+        assertThat(enrolled).doesNotContainAnyElementsOf(seated);
+
+        List<Long> wanting = waiting.stream()
+                .filter(studentId -> !left.contains(studentId) && !deleted.contains(studentId))
+                .toList();
+        assertThat(enrolled).hasSize(Math.min(RAISED_CAPACITY, wanting.size()));
+        assertThat(jdbcTemplate.queryForObject("SELECT enrolled_count FROM courses WHERE id = ?", Integer.class,
+                courseId)).isEqualTo(enrolled.size());
+        List<Long> enrolledOrWaiting = new ArrayList<>(enrolled);
+        enrolledOrWaiting.addAll(stillWaiting);
+        assertThat(enrolledOrWaiting).containsExactlyInAnyOrderElementsOf(wanting);
+    }
+
+    @Test
+    void duplicateRequestsForTheSamePairChangeItOnce() throws Exception {
+        Long courseId = createCourse("Double click");
+        List<Long> studentIds = createStudents("double", 20);
+
+        for (Long studentId : studentIds) {
+            List<EnrollmentOutcome> enrolls = runTwiceAtOnce(() -> enrollmentService.enroll(studentId, courseId));
+            assertThat(enrolls).containsExactlyInAnyOrder(EnrollmentOutcome.ENROLLED, EnrollmentOutcome.ALREADY_ENROLLED);
+            assertSeatsConsistent(courseId);
+
+            List<EnrollmentOutcome> unenrolls = runTwiceAtOnce(() -> enrollmentService.unenroll(studentId, courseId));
+            assertThat(unenrolls).containsExactlyInAnyOrder(EnrollmentOutcome.UNENROLLED, EnrollmentOutcome.NOT_ENROLLED);
+            assertSeatsConsistent(courseId);
+        }
+    }
+
+    private void assertSeatsConsistent(Long courseId) {
+        Integer enrolledCount = jdbcTemplate.queryForObject(
+                "SELECT enrolled_count FROM courses WHERE id = ?", Integer.class, courseId);
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_courses WHERE course_id = ?", Integer.class, courseId);
+        Integer enrolledAndWaiting = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_courses e JOIN course_waitlist w "
+                        + "ON w.student_id = e.student_id AND w.course_id = e.course_id WHERE e.course_id = ?",
+                Integer.class, courseId);
+
+        assertThat(enrolledCount).isEqualTo(rows);
+        assertThat(rows).isLessThanOrEqualTo(CAPACITY);
+        assertThat(enrolledAndWaiting).isZero();
+    }
+
+    private Long createCourse(String name) {
+        Course course = new Course(name, "Capacity-limited course");
+        course.setCapacity(CAPACITY);
+        return courseService.createCourse(course).getId();
+    }
+
+    private List<Long> createStudents(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(studentService.createStudent(new Student("Student " + i, prefix + i + "@test.example")).getId());
+        }
+        return ids;
+    }
+
+    private <T> List<T> runTwiceAtOnce(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<T> gated = () -> {
+            start.await();
+            return task.call();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<T>> futures = List.of(executor.submit(gated), executor.submit(gated));
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Run the tasks on a fixed pool and log the throughput they reached under contention
+     */
+    private static void runInParallel(String name, List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("{}: {} operations on {} threads in {} ms, {} operations/s", name, tasks.size(), THREADS,
+                    Math.round(seconds * 1000), Math.round(tasks.size() / seconds));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
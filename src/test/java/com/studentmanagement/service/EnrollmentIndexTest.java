@@ -0,0 +1,161 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keeping the in-memory enrollment index in step with the database
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class EnrollmentIndexTest {
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void createStudentsAndCourses() {
+        studentIds = new ArrayList<>();
+        courseIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            studentIds.add(studentService.createStudent(new Student("Indexed Student " + i,
+                    "indexed" + i + "-" + System.nanoTime() + "@test.example")).getId());
+            courseIds.add(courseService.createCourse(new Course("Indexed Course " + i, "Indexed")).getId());
+        }
+        assertThat(enrollmentIndex.isReady()).isTrue();
+    }
+
+    @Test
+    void committedChangesReachTheIndex() {
+        enrollmentService.enrollInCourses(studentIds.get(0), courseIds);
+        enrollmentService.enrollStudents(courseIds.get(1), studentIds.subList(1, 3));
+        assertIndexMatchesDatabase();
+
+        enrollmentService.unenroll(studentIds.get(0), courseIds.get(1));
+        assertIndexMatchesDatabase();
+        assertThat(enrollmentIndex.getStudentIds(courseIds.get(1))).containsExactly(studentIds.get(1), studentIds.get(2));
+
+        studentService.deleteStudent(studentIds.get(1));
+        assertIndexMatchesDatabase();
+        assertThat(enrollmentIndex.getStudentIdsNotEnrolled(courseIds.get(1))).doesNotContain(studentIds.get(1));
+    }
+
+    @Test
+    void pagesOfNotEnrolledCoursesSkipEnrolledOnes() {
+        enrollmentService.enroll(studentIds.get(0), courseIds.get(1));
+
+        List<Long> available = enrollmentIndex.getCourseIdsNotEnrolledAfter(studentIds.get(0), courseIds.get(0) - 1, 2);
+
+        assertThat(available).containsExactly(courseIds.get(0), courseIds.get(2));
+        assertThat(enrollmentIndex.getCourseIdsAfter(studentIds.get(0), courseIds.get(1), 10)).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreReplayed() {
+        enrollmentService.enroll(studentIds.get(0), courseIds.get(0));
+        List<Runnable> beforeSnapshotEnds = new ArrayList<>();
+        EnrollmentIndex rebuilt = new EnrollmentIndex(commitHook(beforeSnapshotEnds));
+        // Committed once the rebuild has read everything, so only the replay brings them in
+        beforeSnapshotEnds.add(() -> {
+            jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)",
+                    studentIds.get(0), courseIds.get(1));
+            jdbcTemplate.update("DELETE FROM student_courses WHERE student_id = ? AND course_id = ?",
+                    studentIds.get(0), courseIds.get(0));
+            for (EnrollmentIndex index : List.of(rebuilt, enrollmentIndex)) {
+                index.onEnrollmentChanged(EnrollmentChangedEvent.enrolled(studentIds.get(0), courseIds.get(1)));
+                index.onEnrollmentChanged(EnrollmentChangedEvent.unenrolled(studentIds.get(0), courseIds.get(0)));
+            }
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.isReady()).isTrue();
+        assertThat(rebuilt.getCourseIds(studentIds.get(0))).containsExactly(courseIds.get(1));
+        assertThat(rebuilt.getStudentIds(courseIds.get(0))).doesNotContain(studentIds.get(0));
+    }
+
+    @Test
+    void changeMadeBehindTheIndexIsFoundByVerify() {
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)",
+                studentIds.get(2), courseIds.get(2));
+        assertThat(enrollmentIndex.getCourseIds(studentIds.get(2))).isEmpty();
+
+        enrollmentIndex.verify();
+
+        assertIndexMatchesDatabase();
+    }
+
+    private void assertIndexMatchesDatabase() {
+        for (Long studentId : studentIds) {
+            assertThat(enrollmentIndex.getCourseIds(studentId)).isEqualTo(jdbcTemplate.queryForList(
+                    "SELECT course_id FROM student_courses WHERE student_id = ? ORDER BY course_id",
+                    Long.class, studentId));
+        }
+        for (Long courseId : courseIds) {
+            assertThat(enrollmentIndex.getStudentIds(courseId)).isEqualTo(jdbcTemplate.queryForList(
+                    "SELECT student_id FROM student_courses WHERE course_id = ? ORDER BY student_id",
+                    Long.class, courseId));
+        }
+    }
+
+    /**
+     * A data source whose connections run the given actions, once, just before their transaction commits
+     */
+    private DataSource commitHook(List<Runnable> actions) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("commit")) {
+                                actions.forEach(Runnable::run);
+                                actions.clear();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+    }
+}
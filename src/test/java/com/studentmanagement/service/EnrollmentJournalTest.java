@@ -0,0 +1,152 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.service.EnrollmentJournal.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recovering the enrollment journal after torn appends and interrupted rewrites
+ */
+class EnrollmentJournalTest {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 29;
+    private static final int SIZE = HEADER_SIZE + 4 * RECORD_SIZE;
+
+    private static final Entry FIRST = new Entry(1, 10, true);
+    private static final Entry SECOND = new Entry(2, 10, true);
+    private static final Entry THIRD = new Entry(1, 10, false);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void appendedEntriesAreRecoveredInOrder() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).isEmpty();
+            journal.append(FIRST);
+            journal.append(SECOND);
+            journal.append(THIRD);
+        }
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST, SECOND, THIRD);
+            assertThat(journal.size()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void recordFailingItsChecksumEndsRecovery() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            journal.append(FIRST);
+            journal.append(SECOND);
+            journal.append(THIRD);
+        }
+        // A torn append: the last record's course ID was only partly written
+        flipByte(0, HEADER_SIZE + 2 * RECORD_SIZE + 16);
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST, SECOND);
+            // The next append takes the torn record's place
+            journal.append(THIRD);
+        }
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST, SECOND, THIRD);
+        }
+    }
+
+    @Test
+    void corruptRecordHidesTheOnesAfterIt() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            journal.append(FIRST);
+            journal.append(SECOND);
+            journal.append(THIRD);
+        }
+        flipByte(0, HEADER_SIZE + RECORD_SIZE + RECORD_SIZE - 1);
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST);
+        }
+    }
+
+    @Test
+    void crashBeforeTheRewriteIsStampedKeepsThePreviousFile() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            journal.append(FIRST);
+            journal.append(SECOND);
+            assertThat(journal.rewrite(List.of(THIRD))).isTrue();
+        }
+        // The rewritten records reached the standby file but its header never did
+        clearHeader(1);
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST, SECOND);
+        }
+    }
+
+    @Test
+    void rewriteReplacesTheContentsAndIgnoresOlderLeftovers() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            journal.append(FIRST);
+            journal.append(SECOND);
+            journal.append(THIRD);
+            journal.rewrite(List.of(SECOND));
+            // Back on the first file, whose later slots still hold the first generation's records
+            journal.rewrite(List.of(THIRD));
+            assertThat(journal.size()).isEqualTo(1);
+        }
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(THIRD);
+        }
+    }
+
+    @Test
+    void fullJournalRefusesAppendsAndOversizedRewrites() throws IOException {
+        try (EnrollmentJournal journal = open()) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(journal.append(new Entry(i, 10, true))).isTrue();
+            }
+            assertThat(journal.append(FIRST)).isFalse();
+            assertThat(journal.rewrite(List.of(FIRST, SECOND, THIRD, FIRST, SECOND))).isFalse();
+            assertThat(journal.size()).isEqualTo(4);
+
+            assertThat(journal.rewrite(List.of(FIRST))).isTrue();
+            assertThat(journal.append(SECOND)).isTrue();
+        }
+
+        try (EnrollmentJournal journal = open()) {
+            assertThat(journal.recovered()).containsExactly(FIRST, SECOND);
+        }
+    }
+
+    private EnrollmentJournal open() throws IOException {
+        return new EnrollmentJournal(directory, SIZE);
+    }
+
+    private void flipByte(int file, int offset) throws IOException {
+        try (RandomAccessFile journalFile = new RandomAccessFile(file(file), "rw")) {
+            journalFile.seek(offset);
+            int value = journalFile.read();
+            journalFile.seek(offset);
+            journalFile.write(value ^ 0xFF);
+        }
+    }
+
+    private void clearHeader(int file) throws IOException {
+        try (RandomAccessFile journalFile = new RandomAccessFile(file(file), "rw")) {
+            journalFile.write(new byte[HEADER_SIZE]);
+        }
+    }
+
+    private String file(int file) {
+        return directory.resolve("enrollments-" + file + ".journal").toString();
+    }
+}
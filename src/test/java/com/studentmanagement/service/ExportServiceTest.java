@@ -0,0 +1,144 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.config.ExportProperties;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streaming exports that match the database row for row
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void createEnrolledStudent() {
+        studentId = studentService.createStudent(new Student("Exported, \"Quoted\" Student",
+                "exported" + System.nanoTime() + "@test.example")).getId();
+        courseIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            courseIds.add(courseService.createCourse(new Course("Exported Course " + i, "Exported")).getId());
+        }
+        enrollmentService.enrollInCourses(studentId, courseIds);
+    }
+
+    @Test
+    void studentsAreExportedOnceWithAllTheirCourses() throws IOException {
+        // Clearing the persistence context every other student must not split or lose any course list
+        int clearInterval = exportProperties.getClearInterval();
+        exportProperties.setClearInterval(2);
+        List<JsonNode> records;
+        try {
+            records = ndjson(output -> exportService.exportStudents(output, DataFormat.NDJSON));
+        } finally {
+            exportProperties.setClearInterval(clearInterval);
+        }
+
+        Map<Long, List<Long>> exported = new TreeMap<>();
+        for (JsonNode record : records) {
+            List<Long> ids = new ArrayList<>();
+            record.get("courseIds").forEach(id -> ids.add(id.asLong()));
+            assertThat(exported.put(record.get("id").asLong(), ids)).isNull();
+        }
+        assertThat(exported).isEqualTo(coursesByStudent());
+    }
+
+    @Test
+    void csvValuesAreQuotedAndListsJoined() {
+        String csv = export(output -> exportService.exportStudents(output, DataFormat.CSV));
+        List<String> lines = csv.lines().toList();
+        String email = jdbcTemplate.queryForObject("SELECT email FROM students WHERE id = ?", String.class, studentId);
+
+        assertThat(lines.get(0)).isEqualTo("id,name,email,courseIds");
+        assertThat(lines).contains(studentId + ",\"Exported, \"\"Quoted\"\" Student\"," + email + ","
+                + courseIds.get(0) + ";" + courseIds.get(1) + ";" + courseIds.get(2));
+    }
+
+    @Test
+    void coursesAndEnrollmentsMatchTheDatabase() throws IOException {
+        List<JsonNode> courses = ndjson(output -> exportService.exportCourses(output, DataFormat.NDJSON));
+        List<JsonNode> enrollments = ndjson(output -> exportService.exportEnrollments(output, DataFormat.NDJSON));
+
+        assertThat(courses).extracting(course -> course.get("id").asLong())
+                .containsExactlyInAnyOrderElementsOf(jdbcTemplate.queryForList("SELECT id FROM courses", Long.class));
+        assertThat(courses).filteredOn(course -> course.get("id").asLong() == courseIds.get(0))
+                .singleElement()
+                .satisfies(course -> assertThat(course.get("name").asText()).isEqualTo("Exported Course 0"));
+
+        Map<Long, List<Long>> pairs = new TreeMap<>();
+        enrollments.forEach(row -> pairs.computeIfAbsent(row.get("studentId").asLong(), id -> new ArrayList<>())
+                .add(row.get("courseId").asLong()));
+        pairs.values().forEach(ids -> ids.sort(null));
+        Map<Long, List<Long>> stored = new TreeMap<>(coursesByStudent());
+        stored.values().removeIf(List::isEmpty);
+        assertThat(pairs).isEqualTo(stored);
+    }
+
+    private Map<Long, List<Long>> coursesByStudent() {
+        Map<Long, List<Long>> byStudent = new HashMap<>();
+        jdbcTemplate.queryForList("SELECT id FROM students", Long.class)
+                .forEach(id -> byStudent.put(id, new ArrayList<>()));
+        jdbcTemplate.query("SELECT student_id, course_id FROM student_courses ORDER BY student_id, course_id",
+                rs -> { byStudent.get(rs.getLong(1)).add(rs.getLong(2)); });
+        return byStudent;
+    }
+
+    private List<JsonNode> ndjson(Consumer<ByteArrayOutputStream> exporter) throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : export(exporter).lines().toList()) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    private static String export(Consumer<ByteArrayOutputStream> exporter) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.accept(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.PaginationProperties;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.CourseUpdatedEvent;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import com.studentmanagement.service.FragmentCache.Fragment;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Cached course lists of the enrollment page
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class FragmentCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @Test
+    void enrollmentOnlyOutdatesListsShowingTheCourse() throws Exception {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i <= paginationProperties.getRosterSize(); i++) {
+            Course course = new Course("Fragment Course " + i, "Listed course");
+            course.setCapacity(50);
+            courseIds.add(courseService.createCourse(course).getId());
+        }
+        Long viewer = createStudent("viewer");
+        Long other = createStudent("other");
+        // Courses left full by other tests would only waitlist the student
+        Long firstListed = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM courses WHERE capacity IS NULL OR enrolled_count < capacity", Long.class);
+        Long notListed = courseIds.get(courseIds.size() - 1);
+
+        view(viewer);
+        double misses = misses();
+        view(viewer);
+        assertThat(misses()).isEqualTo(misses);
+
+        enrollmentService.enroll(other, notListed);
+        view(viewer);
+        assertThat(misses()).as("seats changed in a course the list does not show").isEqualTo(misses);
+
+        enrollmentService.enroll(other, firstListed);
+        view(viewer);
+        assertThat(misses()).as("seats changed in a course the list shows").isEqualTo(misses + 1);
+    }
+
+    @Test
+    void cachedLinksIncludeTheContextPath() throws Exception {
+        courseService.createCourse(new Course("Linked Course", "Listed course"));
+        Long studentId = createStudent("linked");
+
+        String html = mockMvc.perform(get("/app/enrollments/student/{id}", studentId).contextPath("/app"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(html).contains("action=\"/app/enrollments/student/" + studentId + "/enroll/");
+    }
+
+    @Test
+    void evictingAnotherKeyWhileRenderingStillCaches() {
+        Long courseId = createCourse("Steady Roster");
+        Long otherCourseId = createCourse("Busy Roster");
+        Long studentId = createStudent("bystander");
+
+        renderRoster(courseId, () -> fragmentCache.onEnrollmentChanged(
+                EnrollmentChangedEvent.enrolled(studentId, otherCourseId)));
+        double misses = misses();
+        renderRoster(courseId, () -> { });
+
+        assertThat(misses()).isEqualTo(misses);
+    }
+
+    @Test
+    void evictingTheKeyWhileRenderingDoesNotCache() {
+        Long courseId = createCourse("Changing Roster");
+        Long studentId = createStudent("joiner");
+
+        renderRoster(courseId, () -> fragmentCache.onEnrollmentChanged(
+                EnrollmentChangedEvent.enrolled(studentId, courseId)));
+        double misses = misses();
+        renderRoster(courseId, () -> { });
+
+        assertThat(misses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void trackedCourseChangesStayBounded() {
+        for (long courseId = 1; courseId <= 25_000; courseId++) {
+            fragmentCache.onCourseUpdated(new CourseUpdatedEvent(Long.MAX_VALUE - courseId, "Renamed", "Renamed"));
+        }
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(fragmentCache, "courseChanges"))
+                .hasSizeLessThanOrEqualTo(10_000);
+    }
+
+    /**
+     * Render a course's roster fragment the way the course page does, running a change while the model is built
+     */
+    private void renderRoster(Long courseId, Runnable duringRender) {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse()));
+        try {
+            long version = jdbcTemplate.queryForObject("SELECT version FROM courses WHERE id = ?", Long.class,
+                    courseId);
+            fragmentCache.render(Fragment.COURSE_ROSTER, courseId, version, () -> {
+                Map<String, Object> model = Map.of("courseId", courseId, "page",
+                        studentService.getStudentPageByCourse(courseId, null, paginationProperties.getRosterSize()));
+                duringRender.run();
+                return model;
+            });
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private Long createCourse(String name) {
+        return courseService.createCourse(new Course(name, "Rendered course")).getId();
+    }
+
+    private void view(Long studentId) throws Exception {
+        mockMvc.perform(get("/enrollments/student/{id}", studentId));
+    }
+
+    private double misses() {
+        return meterRegistry.get("fragment.cache.requests").tag("result", "miss").counter().count();
+    }
+
+    private Long createStudent(String name) {
+        return studentService.createStudent(new Student("Fragment " + name, name + "@fragments.example")).getId();
+    }
+}
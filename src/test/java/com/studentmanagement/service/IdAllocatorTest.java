@@ -0,0 +1,126 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.ImportReport;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sharing the pooled ID generator between Hibernate and JDBC writers without handing out an ID twice
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class IdAllocatorTest {
+
+    private static final int WRITERS = 4;
+    private static final int ROUNDS = 5;
+    private static final int ROWS_PER_IMPORT = 30;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reservedBlocksDoNotOverlap() throws Exception {
+        List<Callable<List<Long>>> tasks = new ArrayList<>();
+        for (int writer = 0; writer < 2 * WRITERS; writer++) {
+            int count = writer + 1;
+            tasks.add(() -> IntStream.range(0, 20)
+                    .mapToObj(round -> idAllocator.reserve("test_blocks", count))
+                    .flatMap(first -> LongStream.range(first, first + count).boxed())
+                    .toList());
+        }
+
+        List<Long> ids = runInParallel(tasks);
+
+        assertThat(new HashSet<>(ids)).hasSameSizeAs(ids);
+        assertThat(ids).allMatch(id -> id > 0);
+    }
+
+    @Test
+    void entitiesAndImportedRowsNeverShareAnId() throws Exception {
+        String domain = "@ids" + System.nanoTime() + ".example";
+        List<Callable<List<Long>>> tasks = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            String saved = "saved" + writer + "-";
+            String imported = "imported" + writer + "-";
+            tasks.add(() -> IntStream.range(0, ROUNDS * ROWS_PER_IMPORT)
+                    .mapToObj(i -> studentService.createStudent(new Student("Saved Student", saved + i + domain)))
+                    .map(Student::getId)
+                    .toList());
+            tasks.add(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    String rows = IntStream.range(round * ROWS_PER_IMPORT, (round + 1) * ROWS_PER_IMPORT)
+                            .mapToObj(i -> "{\"name\": \"Imported Student\", \"email\": \"" + imported + i + domain + "\"}")
+                            .collect(Collectors.joining("\n"));
+                    ImportReport report = bulkImportService.importStudents(
+                            new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), DataFormat.NDJSON);
+                    // A clash with a saved entity's ID would surface as a failed row
+                    assertThat(report.getErrors()).isEmpty();
+                }
+                return List.of();
+            });
+        }
+
+        List<Long> savedIds = runInParallel(tasks);
+
+        List<Long> storedIds = jdbcTemplate.queryForList("SELECT id FROM students WHERE email LIKE ?", Long.class,
+                "%" + domain);
+        assertThat(storedIds).hasSize(2 * WRITERS * ROUNDS * ROWS_PER_IMPORT).containsAll(savedIds);
+        assertThat(new HashSet<>(storedIds)).hasSameSizeAs(storedIds);
+    }
+
+    @Test
+    void advancingPastExistingRowsMovesOnlyForward() {
+        long first = idAllocator.reserve("test_advance", 1);
+
+        idAllocator.advancePast("test_advance", first + 100);
+        long afterAdvance = idAllocator.reserve("test_advance", 1);
+        idAllocator.advancePast("test_advance", first);
+
+        assertThat(afterAdvance).isEqualTo(first + 101);
+        assertThat(idAllocator.reserve("test_advance", 1)).isEqualTo(afterAdvance + 1);
+        assertThatThrownBy(() -> idAllocator.reserve("test_advance", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> runInParallel(List<Callable<List<Long>>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Future<List<Long>> future : executor.invokeAll(tasks)) {
+                ids.addAll(future.get());
+            }
+            return ids;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.SearchPage;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Searching students and courses through the in-memory index and the SQL fallback
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    /**
+     * A word no other test's data contains
+     */
+    private String token;
+
+    @BeforeEach
+    void createToken() {
+        StringBuilder word = new StringBuilder("qz");
+        ThreadLocalRandom.current().ints(8, 'a', 'z' + 1).forEach(c -> word.append((char) c));
+        token = word.toString();
+    }
+
+    @Test
+    void writesReachTheIndexOnceCommitted() {
+        Long studentId = studentService.createStudent(new Student("Ada " + token, token + "@test.example")).getId();
+        assertThat(studentIds(token)).containsExactly(studentId);
+
+        studentService.updateStudent(studentId, new Student("Ada Renamed", "renamed" + token + "@test.example"));
+        assertThat(studentIds("ada " + token)).isEmpty();
+        assertThat(studentIds("renamed" + token)).containsExactly(studentId);
+
+        studentService.deleteStudent(studentId);
+        assertThat(studentIds(token)).isEmpty();
+    }
+
+    @Test
+    void titleMatchesRankFirstAndPagesFollowTheRanking() {
+        Long described = courseService.createCourse(new Course("Seminar", "All about " + token)).getId();
+        Long titled = courseService.createCourse(new Course(token + " Seminar", "Seminar")).getId();
+        Long inWord = courseService.createCourse(new Course("Pre" + token, "Seminar")).getId();
+
+        SearchPage<CourseSummary> first = searchService.searchCourses(token, 0, 2);
+        SearchPage<CourseSummary> second = searchService.searchCourses(token, 1, 2);
+
+        assertThat(first.getItems()).extracting(CourseSummary::getId).containsExactly(titled, described);
+        assertThat(second.getItems()).extracting(CourseSummary::getId).containsExactly(inWord);
+        assertThat(first.getTotal()).isEqualTo(3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void indexFindsWhatTheSqlFallbackFinds() {
+        for (int i = 0; i < 5; i++) {
+            studentService.createStudent(new Student("Student " + i + " " + token, "s" + i + token + "@test.example"));
+        }
+
+        SearchPage<StudentSummary> indexed = searchService.searchStudents(token, 0, 10);
+        ReflectionTestUtils.setField(searchService, "ready", false);
+        SearchPage<StudentSummary> queried;
+        try {
+            queried = searchService.searchStudents(token, 0, 10);
+        } finally {
+            ReflectionTestUtils.setField(searchService, "ready", true);
+        }
+
+        assertThat(indexed.getTotal()).isEqualTo(5).isEqualTo(queried.getTotal());
+        assertThat(indexed.getItems()).extracting(StudentSummary::getId)
+                .containsExactlyInAnyOrderElementsOf(queried.getItems().stream().map(StudentSummary::getId).toList());
+    }
+
+    @Test
+    void rebuildKeepsEveryRecord() {
+        Long studentId = studentService.createStudent(new Student("Rebuilt " + token, token + "@test.example")).getId();
+
+        searchService.rebuild();
+
+        assertThat(studentIds(token)).containsExactly(studentId);
+    }
+
+    private List<Long> studentIds(String query) {
+        return searchService.searchStudents(query, 0, 10).getItems().stream().map(StudentSummary::getId).toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.DashboardStatistics;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.EnrollmentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reconciling the in-memory dashboard counters with the database
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class StatisticsServiceTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void createStudentAndCourse() {
+        studentId = studentService.createStudent(new Student("Counted Student",
+                "counted" + System.nanoTime() + "@test.example")).getId();
+        courseId = courseService.createCourse(new Course("Counted Course", "Counted")).getId();
+        statisticsService.reconcile();
+    }
+
+    @Test
+    void eventsMatchTheDatabase() {
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void missedChangeIsCorrected() {
+        // Written behind the application's back, so no event reaches the counters
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)", studentId, courseId);
+
+        statisticsService.reconcile();
+
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void changeWhoseEventArrivesDuringReconcileIsCountedOnce() throws Exception {
+        jdbcTemplate.update("INSERT INTO student_courses (student_id, course_id) VALUES (?, ?)", studentId, courseId);
+
+        // The queries already see the row when its event reaches the counters, as when a listener runs late
+        CompletableFuture<Void> reconciling = CompletableFuture.runAsync(statisticsService::reconcile);
+        Thread.sleep(500);
+        statisticsService.onEnrollmentChanged(EnrollmentChangedEvent.enrolled(studentId, courseId));
+        reconciling.get();
+
+        assertCountersMatchDatabase();
+    }
+
+    private void assertCountersMatchDatabase() {
+        DashboardStatistics statistics = statisticsService.getStatistics();
+        assertThat(statistics.getStudentCount()).isEqualTo(count("SELECT COUNT(*) FROM students"));
+        assertThat(statistics.getCourseCount()).isEqualTo(count("SELECT COUNT(*) FROM courses"));
+        assertThat(statistics.getEnrollmentCount()).isEqualTo(count("SELECT COUNT(*) FROM student_courses"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ruling out free emails with the Bloom filter without ever missing a taken one
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class StudentEmailFilterTest {
+
+    @Autowired
+    private StudentEmailFilter studentEmailFilter;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    void takenEmailsAreFoundAndFreeOnesRuledOut() {
+        String taken = email("taken");
+        String free = email("free");
+        studentService.createStudent(new Student("Filtered Student", taken));
+
+        assertThat(studentEmailFilter.emailExists(taken)).isTrue();
+        assertThat(studentEmailFilter.emailExists(free)).isFalse();
+        assertThat(studentEmailFilter.findExistingEmails(List.of(taken, free))).containsExactly(taken);
+    }
+
+    @Test
+    void changedEmailIsTakenAndTheOldOneFreed() {
+        String before = email("before");
+        String after = email("after");
+        Long studentId = studentService.createStudent(new Student("Renamed Student", before)).getId();
+
+        studentService.updateStudent(studentId, new Student("Renamed Student", after));
+
+        assertThat(studentEmailFilter.emailExists(after)).isTrue();
+        // Still in the filter, so the database has the last word
+        assertThat(studentEmailFilter.emailExists(before)).isFalse();
+    }
+
+    @Test
+    void emailsCommittedWhileRebuildingAreInTheNewFilter() {
+        List<String> created = new CopyOnWriteArrayList<>();
+        AtomicBoolean rebuilding = new AtomicBoolean(true);
+        CompletableFuture<Void> creating = CompletableFuture.runAsync(() -> {
+            for (int i = 0; rebuilding.get() || i < 20; i++) {
+                String email = email("rebuild" + i);
+                studentService.createStudent(new Student("Rebuild Student " + i, email));
+                created.add(email);
+            }
+        });
+
+        try {
+            for (int i = 0; i < 20; i++) {
+                studentEmailFilter.rebuild();
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+        creating.join();
+
+        BloomFilter filter = (BloomFilter) ReflectionTestUtils.getField(studentEmailFilter, "filter");
+        assertThat(created).hasSizeGreaterThanOrEqualTo(20).allMatch(filter::mightContain);
+    }
+
+    private static String email(String name) {
+        return name + System.nanoTime() + "@filter.example";
+    }
+}
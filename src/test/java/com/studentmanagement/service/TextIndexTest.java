@@ -0,0 +1,82 @@
+package com.studentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private TextIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        index = new TextIndex();
+        index.put(1, "Banana Farming", "Tropical crops");
+        index.put(2, "Biology", "Intro to anatomy");
+        index.put(3, "Basic Anatomy", "Bones and muscles");
+        index.put(4, "Physiology", "Anatomy in motion");
+        index.put(5, "Anatomy", "Full year");
+    }
+
+    @Test
+    void matchesAreRankedByWhereTheQueryStarts() {
+        TextIndex.Result result = index.search("ana", 0, 10);
+
+        // Title prefix, detail prefix, title word, detail word, anywhere
+        assertThat(result.ids()).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.exact()).isTrue();
+    }
+
+    @Test
+    void pagesSliceTheRankingAcrossTiers() {
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < 5; offset += 2) {
+            paged.addAll(index.search("ana", offset, 2).ids());
+        }
+
+        assertThat(paged).isEqualTo(index.search("ana", 0, 10).ids());
+    }
+
+    @Test
+    void longQueriesAreCheckedAgainstTheText() {
+        // Holds every trigram of the query without containing it
+        index.put(6, "Natoanat", "");
+
+        TextIndex.Result result = index.search("anato", 0, 10);
+
+        assertThat(result.ids()).containsExactly(5L, 4L, 3L, 2L);
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(index.search("anato", 2, 10).ids()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shortQueriesMatchWordPrefixesOnly() {
+        assertThat(index.search("an", 0, 10).ids()).containsExactly(5L, 4L, 3L, 2L);
+        assertThat(index.search("b", 0, 10).ids()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void caseAccentsAndSpacingAreIgnored() {
+        index.put(7, "Émile   Zola", "zola@example.com");
+
+        assertThat(index.search("EMILE ZOLA", 0, 10).ids()).containsExactly(7L);
+        assertThat(index.search("ole", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void replacedAndRemovedTextIsNoLongerFound() {
+        index.put(5, "Zoology", "Full year");
+        assertThat(index.search("anatomy", 0, 10).ids()).containsExactly(4L, 3L, 2L);
+        assertThat(index.search("zoo", 0, 10).ids()).containsExactly(5L);
+
+        index.remove(5);
+        assertThat(index.search("zoo", 0, 10).ids()).isEmpty();
+        assertThat(index.search("full", 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,81 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.event.StudentUpdatedEvent;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The conditional single-UPDATE paths used by the edit forms
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class VersionedUpdateTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void invalidStudentIsRejectedAndLeftUnchanged() {
+        Long id = studentService.createStudent(new Student("Valid Name", "valid.name@test.example")).getId();
+
+        assertThatThrownBy(() -> studentService.updateStudent(id, version("students", id),
+                new Student("X", "not an email")))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("valid email address");
+        assertThat(jdbcTemplate.queryForObject("SELECT email FROM students WHERE id = ?", String.class, id))
+                .isEqualTo("valid.name@test.example");
+    }
+
+    @Test
+    void invalidCourseIsRejectedAndLeftUnchanged() {
+        Course course = new Course("Valid Course", "Before");
+        course.setCapacity(10);
+        Long id = courseService.createCourse(course).getId();
+
+        Course edited = new Course("Valid Course", "After");
+        edited.setCapacity(0);
+        assertThatThrownBy(() -> courseService.updateCourse(id, version("courses", id), edited))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("at least 1");
+        assertThat(jdbcTemplate.queryForObject("SELECT capacity FROM courses WHERE id = ?", Integer.class, id))
+                .isEqualTo(10);
+    }
+
+    @Test
+    void updateEventCarriesThePreviousEmail() {
+        Long id = studentService.createStudent(new Student("Moving Student", "old.address@test.example")).getId();
+
+        studentService.updateStudent(id, version("students", id),
+                new Student("Moving Student", "new.address@test.example"));
+
+        assertThat(events.stream(StudentUpdatedEvent.class))
+                .containsExactly(new StudentUpdatedEvent(id, "old.address@test.example", "Moving Student",
+                        "new.address@test.example"));
+    }
+
+    private long version(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+}
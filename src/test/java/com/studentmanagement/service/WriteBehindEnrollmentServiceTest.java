@@ -0,0 +1,261 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.EnrollmentJournalProperties;
+import com.studentmanagement.dto.EnrollmentOutcome;
+import com.studentmanagement.entity.Course;
+import com.studentmanagement.entity.Student;
+import com.studentmanagement.repository.CourseRepository;
+import com.studentmanagement.repository.StudentRepository;
+import com.studentmanagement.service.EnrollmentJournal.Entry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Journaling single enrollment changes and writing them behind, on a journal of the test's own
+ */
+@SpringBootTest(properties = {"app.monitoring.query-budget-mode=fail", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+@AutoConfigureMockMvc
+class WriteBehindEnrollmentServiceTest {
+
+    private static final int JOURNAL_SIZE = 4096;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private final Map<WriteBehindEnrollmentService, MeterRegistry> opened = new IdentityHashMap<>();
+
+    /**
+     * Run by the next batch in place of writing it
+     */
+    private Runnable failNextBatch;
+
+    private Long studentId;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void createStudentAndCourses() {
+        studentId = studentService.createStudent(new Student("Journaled Student",
+                "journaled" + System.nanoTime() + "@test.example")).getId();
+        courseIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            courseIds.add(courseService.createCourse(new Course("Journaled Course " + i, "Journaled")).getId());
+        }
+    }
+
+    @AfterEach
+    void closeServices() throws IOException {
+        for (WriteBehindEnrollmentService service : opened.keySet()) {
+            service.close();
+        }
+    }
+
+    @Test
+    void changesAreAcknowledgedBeforeTheyAreWritten() {
+        WriteBehindEnrollmentService service = open();
+
+        assertThat(service.enroll(studentId, courseIds.get(0))).isEqualTo(EnrollmentOutcome.ENROLLED);
+        assertThat(service.enroll(studentId, courseIds.get(0))).isEqualTo(EnrollmentOutcome.ALREADY_ENROLLED);
+        assertThat(enrolledCourses()).isEmpty();
+
+        service.flush();
+
+        assertThat(enrolledCourses()).containsExactly(courseIds.get(0));
+        assertThat(service.unenroll(studentId, courseIds.get(1))).isEqualTo(EnrollmentOutcome.NOT_ENROLLED);
+    }
+
+    @Test
+    void oppositePendingChangesCancelOut() {
+        WriteBehindEnrollmentService service = open();
+        MeterRegistry meterRegistry = registryOf(service);
+
+        service.enroll(studentId, courseIds.get(0));
+        assertThat(service.unenroll(studentId, courseIds.get(0))).isEqualTo(EnrollmentOutcome.UNENROLLED);
+
+        assertThat(pending(meterRegistry)).isZero();
+        assertThat(meterRegistry.get("enrollment.journal.cancelled").counter().count()).isEqualTo(2);
+        service.flush();
+        assertThat(enrolledCourses()).isEmpty();
+    }
+
+    @Test
+    void lastChangeOfEachPairWinsOnReplay() throws IOException {
+        enrollmentService.enroll(studentId, courseIds.get(1));
+        try (EnrollmentJournal journal = new EnrollmentJournal(directory, JOURNAL_SIZE)) {
+            journal.append(new Entry(studentId, courseIds.get(0), true));
+            journal.append(new Entry(studentId, courseIds.get(1), false));
+            journal.append(new Entry(studentId, courseIds.get(0), false));
+            journal.append(new Entry(studentId, courseIds.get(1), true));
+            journal.append(new Entry(studentId, courseIds.get(0), true));
+            journal.append(new Entry(studentId, courseIds.get(2), true));
+            journal.append(new Entry(studentId, courseIds.get(2), false));
+        }
+
+        WriteBehindEnrollmentService service = open();
+        assertThat(pending(registryOf(service))).isEqualTo(3);
+        service.flush();
+
+        // Replaying a change that had already been applied, like the enrollment in the second course, is a no-op
+        assertThat(enrolledCourses()).containsExactly(courseIds.get(0), courseIds.get(1));
+        assertThat(pending(registryOf(service))).isZero();
+        service.close();
+        opened.clear();
+        assertThat(pending(registryOf(open()))).isZero();
+    }
+
+    @Test
+    void failedBatchIsRequeuedAheadOfNewerChanges() {
+        WriteBehindEnrollmentService service = open();
+        service.enroll(studentId, courseIds.get(0));
+        service.enroll(studentId, courseIds.get(1));
+
+        // Undone while the batch holding the enrollment is being written
+        failNextBatch = () -> service.unenroll(studentId, courseIds.get(1));
+        service.flush();
+
+        assertThat(enrolledCourses()).isEmpty();
+        assertThat(pending(registryOf(service))).isEqualTo(1);
+        assertThat(service.withPending(studentId, List.of(), true)).containsExactly(courseIds.get(0));
+
+        service.flush();
+
+        assertThat(enrolledCourses()).containsExactly(courseIds.get(0));
+        assertThat(pending(registryOf(service))).isZero();
+    }
+
+    @Test
+    void changesSurviveARestartUntilWritten() throws IOException {
+        WriteBehindEnrollmentService service = open();
+        service.enroll(studentId, courseIds.get(0));
+        failNextBatch = () -> { };
+        service.flush();
+        service.close();
+        opened.clear();
+
+        WriteBehindEnrollmentService restarted = open();
+        assertThat(pending(registryOf(restarted))).isEqualTo(1);
+        restarted.flush();
+
+        assertThat(enrolledCourses()).containsExactly(courseIds.get(0));
+    }
+
+    @Test
+    void pendingChangesOverlayCourseLists() {
+        enrollmentService.enroll(studentId, courseIds.get(0));
+        WriteBehindEnrollmentService service = open();
+        service.unenroll(studentId, courseIds.get(0));
+        service.enroll(studentId, courseIds.get(1));
+        service.enroll(studentId, courseIds.get(2));
+
+        assertThat(service.withPending(studentId, List.of(courseIds.get(0)), true))
+                .containsExactly(courseIds.get(1), courseIds.get(2));
+        assertThat(service.withPending(studentId, courseIds.subList(1, 3), false))
+                .containsExactly(courseIds.get(0));
+        // Another student's list is left alone
+        assertThat(service.withPending(studentId + 1_000_000, List.of(courseIds.get(0)), true))
+                .containsExactly(courseIds.get(0));
+    }
+
+    @Test
+    void pendingAdditionsStayWithinTheirPage() {
+        WriteBehindEnrollmentService service = open();
+        courseIds.forEach(courseId -> service.enroll(studentId, courseId));
+        long beforeFirst = courseIds.get(0) - 1;
+
+        // A full page that read up to the first course, then the page after it
+        assertThat(service.withPending(studentId, List.of(), true, beforeFirst, courseIds.get(0)))
+                .containsExactly(courseIds.get(0));
+        assertThat(service.withPending(studentId, List.of(), true, courseIds.get(0), courseIds.get(1)))
+                .containsExactly(courseIds.get(1));
+        // A short page read to the end, so every later addition belongs on it
+        assertThat(service.withPending(studentId, List.of(), true, courseIds.get(0), null))
+                .containsExactly(courseIds.get(1), courseIds.get(2));
+        // Removals apply whatever the range
+        assertThat(service.withPending(studentId, List.copyOf(courseIds), false, courseIds.get(2), null))
+                .isEmpty();
+    }
+
+    private WriteBehindEnrollmentService open() {
+        EnrollmentJournalProperties properties = new EnrollmentJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSize(DataSize.ofBytes(JOURNAL_SIZE));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                Runnable failure = failNextBatch;
+                if (failure != null) {
+                    failNextBatch = null;
+                    failure.run();
+                    throw new TransactionSystemException("Database unavailable");
+                }
+                return super.execute(action);
+            }
+        };
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteBehindEnrollmentService service = new WriteBehindEnrollmentService(enrollmentService,
+                studentRepository, courseRepository, transactionTemplate, eventPublisher, properties, meterRegistry);
+        opened.put(service, meterRegistry);
+        return service;
+    }
+
+    private MeterRegistry registryOf(WriteBehindEnrollmentService service) {
+        return opened.get(service);
+    }
+
+    private double pending(MeterRegistry meterRegistry) {
+        return meterRegistry.get("enrollment.journal.pending").gauge().value();
+    }
+
+    private List<Long> enrolledCourses() {
+        return jdbcTemplate.queryForList("SELECT course_id FROM student_courses WHERE student_id = ? ORDER BY course_id",
+                Long.class, studentId);
+    }
+}